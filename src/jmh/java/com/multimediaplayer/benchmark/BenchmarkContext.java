@@ -0,0 +1,90 @@
+package com.multimediaplayer.benchmark;
+
+import com.multimediaplayer.codec.HeadlessDecoder;
+import com.multimediaplayer.codec.api.CodecService;
+import com.multimediaplayer.container.AppContext;
+import com.multimediaplayer.extension.api.ConfigService;
+import org.slf4j.Logger;
+import org.slf4j.helpers.NOPLogger;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * 性能测试用应用上下文：手动注册被测模块，不启动JavaFX
+ * 日志使用NOPLogger，避免日志输出掩盖被测代码的开销
+ */
+public class BenchmarkContext implements AppContext {
+    private final Map<Class<?>, Object> moduleMap = new HashMap<>();
+
+    public BenchmarkContext() {
+        moduleMap.put(ConfigService.class, new MemoryConfigService());
+    }
+
+    public <T> BenchmarkContext register(Class<T> moduleInterface, T module) {
+        moduleMap.put(moduleInterface, module);
+        return this;
+    }
+
+    // 注册生产的无界面解码引擎（codec.engine=headless），按当前配置创建：codec.headless.*配置需在此之前设置
+    public HeadlessDecoder registerHeadlessCodec() {
+        HeadlessDecoder decoder = new HeadlessDecoder(this);
+        register(CodecService.class, decoder);
+        return decoder;
+    }
+
+    // 覆盖配置项（作用于内置的内存配置服务）
+    public BenchmarkContext config(String key, String value) {
+        getModule(ConfigService.class).setConfig(key, value);
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getModule(Class<T> moduleInterface) {
+        T module = (T) moduleMap.get(moduleInterface);
+        if (module == null) {
+            throw new RuntimeException("模块未注册：" + moduleInterface.getName());
+        }
+        return module;
+    }
+
+    @Override
+    public Logger getGlobalLogger() {
+        return NOPLogger.NOP_LOGGER;
+    }
+
+    // 内存配置服务：不读写player_config.properties，测试之间互不影响
+    private static final class MemoryConfigService implements ConfigService {
+        private final Map<String, String> configMap = new ConcurrentHashMap<>();
+
+        @Override
+        public String getConfig(String key, String defaultValue) {
+            return configMap.getOrDefault(key, defaultValue);
+        }
+
+        @Override
+        public void setConfig(String key, String value) {
+            configMap.put(key, value);
+        }
+
+        @Override
+        public void saveConfig() {
+        }
+
+        @Override
+        public void loadConfig() {
+        }
+
+        // 性能测试只读取配置，无需变化通知
+        @Override
+        public void registerChangeListener(String keyOrPrefix, BiConsumer<String, String> listener) {
+        }
+
+        @Override
+        public void unregisterChangeListener(BiConsumer<String, String> listener) {
+        }
+    }
+}
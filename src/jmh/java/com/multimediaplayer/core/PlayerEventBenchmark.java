@@ -0,0 +1,123 @@
+package com.multimediaplayer.core;
+
+import com.multimediaplayer.benchmark.BenchmarkContext;
+import com.multimediaplayer.codec.HeadlessDecoder;
+import com.multimediaplayer.codec.api.SeekMode;
+import com.multimediaplayer.core.api.PlayState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 播放核心监听器分发：事件总线扇出（等待全部监听器收到）、播放/暂停状态迁移、解码位置上报
+ * 解码使用生产的HeadlessDecoder；定时上报间隔设为1小时，位置由测试通过跳转（完成后同步上报位置）驱动
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerEventBenchmark {
+    private static final int BATCH = 1000;
+    private static final long DURATION_MS = TimeUnit.HOURS.toMillis(2);
+
+    @Param({"1", "8", "64"})
+    private int listenerCount;
+
+    private ExecutorService dispatchExecutor;
+    private PlayerEventBus<PlayState> eventBus;
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder coreEvents = new LongAdder();
+
+    private HeadlessDecoder codecService;
+    private PlayerCore playerCore;
+    private long position;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkContext context = new BenchmarkContext();
+        dispatchExecutor = PlayerEventBus.newDispatchExecutor();
+        eventBus = new PlayerEventBus<>(context.getGlobalLogger(), "benchmark", false, dispatchExecutor);
+        for (int i = 0; i < listenerCount; i++) {
+            eventBus.subscribe(new CountingListener(delivered));
+        }
+
+        context.config("codec.headless.durationMs", Long.toString(DURATION_MS))
+                .config("codec.headless.tickMs", Long.toString(TimeUnit.HOURS.toMillis(1)));
+        codecService = context.registerHeadlessCodec();
+        playerCore = new PlayerCore(context);
+        for (int i = 0; i < listenerCount; i++) {
+            // 每个监听器需为不同实例（同一实例重复注册会被忽略）
+            playerCore.registerStateListener(new CountingListener(coreEvents));
+            playerCore.registerProgressListener(positionMs -> coreEvents.increment());
+        }
+        playerCore.play("benchmark.mp4");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        eventBus.close();
+        dispatchExecutor.shutdownNow();
+        playerCore.close();
+    }
+
+    // 发布一批事件并等待所有监听器处理完成（度量端到端投递开销）
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void fanOut() {
+        long expected = delivered.sum() + (long) BATCH * listenerCount;
+        for (int i = 0; i < BATCH; i++) {
+            eventBus.publish(PlayState.PLAYING);
+        }
+        while (delivered.sum() < expected) {
+            Thread.onSpinWait();
+        }
+    }
+
+    // 播放/暂停往返：状态机CAS + 状态事件发布
+    @Benchmark
+    public PlayState pauseResume() {
+        playerCore.pause();
+        playerCore.play("benchmark.mp4");
+        return playerCore.getCurrentState();
+    }
+
+    // 解码线程的位置上报路径：时钟校准 + 进度节流
+    @Benchmark
+    public long positionReport() {
+        position = (position + 40) % DURATION_MS; // 25fps
+        codecService.seek(Duration.ofMillis(position), SeekMode.ACCURATE);
+        return playerCore.getCurrentPosition();
+    }
+
+    private static final class CountingListener implements Consumer<PlayState> {
+        private final LongAdder counter;
+
+        private CountingListener(LongAdder counter) {
+            this.counter = counter;
+        }
+
+        @Override
+        public void accept(PlayState state) {
+            counter.increment();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.multimediaplayer.extension;
+
+import com.multimediaplayer.benchmark.BenchmarkContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 配置读写吞吐：热点路径上的getConfig（命中/未命中）与setConfig
+ * 配置写入临时文件并关闭文件监听，测试数据不会进入工作目录的配置文件
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigBenchmark {
+    private static final int KEY_COUNT = 64;
+
+    private Path configFile;
+    private ConfigManager configManager;
+    private String[] keys;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        configFile = Files.createTempFile("config-benchmark", ".properties");
+        Files.writeString(configFile, "config.watch.enabled=false\n");
+        configManager = new ConfigManager(new BenchmarkContext(), configFile);
+        keys = new String[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = "benchmark.key." + i;
+            configManager.setConfig(keys[i], Integer.toString(i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        configManager.close();
+        Files.deleteIfExists(configFile);
+    }
+
+    @Benchmark
+    public String getHit() {
+        return configManager.getConfig(keys[cursor++ & (KEY_COUNT - 1)], "0");
+    }
+
+    @Benchmark
+    public String getMiss() {
+        return configManager.getConfig("benchmark.missing", "0");
+    }
+
+    @Benchmark
+    public void set() {
+        int index = cursor++ & (KEY_COUNT - 1);
+        configManager.setConfig(keys[index], keys[(index + 1) & (KEY_COUNT - 1)]);
+    }
+}
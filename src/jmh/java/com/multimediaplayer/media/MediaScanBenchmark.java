@@ -0,0 +1,134 @@
+package com.multimediaplayer.media;
+
+import com.multimediaplayer.benchmark.BenchmarkContext;
+import com.multimediaplayer.media.api.MediaInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 媒体库扫描：在生成的目录树（每个目录filesPerDir个最小MP4）上执行全量扫描与增量刷新
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MediaScanBenchmark {
+
+    // 生成的目录树（整个测试期间共享）
+    @State(Scope.Benchmark)
+    public static class MediaTree {
+        @Param({"1000", "10000"})
+        private int fileCount;
+
+        @Param({"50"})
+        private int filesPerDir;
+
+        private Path workDir;
+        private Path mediaRoot;
+
+        @Setup(Level.Trial)
+        public void generate() throws IOException {
+            workDir = Files.createTempDirectory("bench-scan");
+            mediaRoot = workDir.resolve("media");
+            byte[] header = minimalMp4(60_000);
+            for (int i = 0; i < fileCount; i++) {
+                Path dir = mediaRoot.resolve("dir-" + (i / filesPerDir / 10)).resolve("sub-" + (i / filesPerDir));
+                Files.createDirectories(dir);
+                Files.write(dir.resolve("video-" + i + ".mp4"), header);
+                if (i % filesPerDir == 0) {
+                    Files.write(dir.resolve("cover.jpg"), new byte[16]); // 非媒体文件，扫描时应跳过
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void delete() throws IOException {
+            try (Stream<Path> files = Files.walk(workDir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        }
+
+        MediaLibrary openLibrary(String indexName) {
+            return new MediaLibrary(new BenchmarkContext()
+                    .config("media.library.index", workDir.resolve(indexName).toString())
+                    .config("media.history.file", workDir.resolve("play_history.log").toString()));
+        }
+    }
+
+    // 每次调用使用全新的媒体库（删除索引文件，保证全量探测）
+    @State(Scope.Thread)
+    public static class EmptyLibrary {
+        private MediaLibrary mediaLibrary;
+
+        @Setup(Level.Invocation)
+        public void open(MediaTree tree) throws IOException {
+            Files.deleteIfExists(tree.workDir.resolve("full.idx"));
+            mediaLibrary = tree.openLibrary("full.idx");
+        }
+
+        @TearDown(Level.Invocation)
+        public void close() {
+            mediaLibrary.close();
+        }
+    }
+
+    // 已完成首次扫描的媒体库
+    @State(Scope.Thread)
+    public static class ScannedLibrary {
+        private MediaLibrary mediaLibrary;
+
+        @Setup(Level.Trial)
+        public void open(MediaTree tree) {
+            mediaLibrary = tree.openLibrary("incremental.idx");
+            mediaLibrary.scanLocalMedia(tree.mediaRoot.toString(), null);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            mediaLibrary.close();
+        }
+    }
+
+    @Benchmark
+    public List<MediaInfo> fullScan(MediaTree tree, EmptyLibrary library) {
+        return library.mediaLibrary.scanLocalMedia(tree.mediaRoot.toString(), null);
+    }
+
+    // 文件无变化：度量按大小/修改时间跳过探测的增量刷新
+    @Benchmark
+    public List<MediaInfo> incrementalRefresh(ScannedLibrary library) {
+        library.mediaLibrary.refreshLibrary();
+        return library.mediaLibrary.getLibraryMedia();
+    }
+
+    // 最小MP4：ftyp + moov/mvhd（时长单位为毫秒）
+    private static byte[] minimalMp4(int durationMs) {
+        ByteBuffer buffer = ByteBuffer.allocate(16 + 8 + 108);
+        buffer.putInt(16).put("ftyp".getBytes()).put("isom".getBytes()).putInt(0);
+        buffer.putInt(8 + 108).put("moov".getBytes());
+        buffer.putInt(108).put("mvhd".getBytes());
+        buffer.putInt(0).putInt(0).putInt(0).putInt(1000).putInt(durationMs);
+        return buffer.array();
+    }
+}
@@ -0,0 +1,87 @@
+package com.multimediaplayer.media;
+
+import com.multimediaplayer.benchmark.BenchmarkContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 播放列表操作：大列表上的追加/删除（列表规模保持不变）与下一首
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlaylistBenchmark {
+
+    @Param({"100000"})
+    private int playlistSize;
+
+    private Path workDir;
+    private MediaLibrary mediaLibrary;
+    private SplittableRandom random;
+    private int[] liveIds; // 当前仍在列表中的条目编号，删除只从中挑选
+    private int nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("bench-playlist");
+        mediaLibrary = new MediaLibrary(new BenchmarkContext()
+                .config("media.library.index", workDir.resolve("media_library.idx").toString())
+                .config("media.history.file", workDir.resolve("play_history.log").toString()));
+        liveIds = new int[playlistSize];
+        for (int i = 0; i < playlistSize; i++) {
+            mediaLibrary.addToPlaylist(path(i));
+            liveIds[i] = i;
+        }
+        nextId = playlistSize;
+        random = new SplittableRandom(42);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        mediaLibrary.close();
+        try (Stream<Path> files = Files.walk(workDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    // 追加一首并随机删除一首仍在列表中的条目，新条目接替其槽位
+    @Benchmark
+    public void addRemove() {
+        int id = nextId++;
+        mediaLibrary.addToPlaylist(path(id));
+        int slot = random.nextInt(playlistSize);
+        mediaLibrary.removeFromPlaylist(path(liveIds[slot]));
+        liveIds[slot] = id;
+    }
+
+    @Benchmark
+    public String next() {
+        return mediaLibrary.getNextMedia();
+    }
+
+    private static String path(int id) {
+        return "/media/library/video-" + id + ".mp4";
+    }
+}
@@ -0,0 +1,110 @@
+package com.multimediaplayer.subtitle;
+
+import com.multimediaplayer.benchmark.BenchmarkContext;
+import com.multimediaplayer.subtitle.api.I18nService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 字幕查询：顺序播放（每次前进一个进度周期）与随机跳转两种访问模式
+ * overlapping=true时加入贯穿全片的标牌字幕，且相邻字幕互相重叠（ASS/VTT常见情形）
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubtitleLookupBenchmark {
+    private static final long CUE_INTERVAL_MS = 3000;
+
+    @Param({"1000", "100000"})
+    private int cueCount;
+
+    @Param({"false", "true"})
+    private boolean overlapping;
+
+    private Path subtitleFile;
+    private SubtitleParser subtitleParser;
+    private long totalMs;
+    private long playhead;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        subtitleFile = Files.createTempFile("bench-subtitle", ".srt");
+        try (BufferedWriter writer = Files.newBufferedWriter(subtitleFile, StandardCharsets.UTF_8)) {
+            if (overlapping) {
+                writer.write("0");
+                writer.newLine();
+                writer.write(clock(0) + " --> " + clock(cueCount * CUE_INTERVAL_MS));
+                writer.newLine();
+                writer.write("标牌");
+                writer.newLine();
+                writer.newLine();
+            }
+            long cueLength = overlapping ? CUE_INTERVAL_MS * 2 : CUE_INTERVAL_MS - 500;
+            for (int i = 0; i < cueCount; i++) {
+                long start = i * CUE_INTERVAL_MS;
+                writer.write(Integer.toString(i + 1));
+                writer.newLine();
+                writer.write(clock(start) + " --> " + clock(start + cueLength));
+                writer.newLine();
+                writer.write("字幕第" + (i + 1) + "条");
+                writer.newLine();
+                writer.newLine();
+            }
+        }
+        BenchmarkContext context = new BenchmarkContext();
+        context.register(I18nService.class, new I18nManager(context));
+        subtitleParser = new SubtitleParser(context);
+        if (!subtitleParser.loadSubtitle(subtitleFile.toString())) {
+            throw new IllegalStateException("字幕加载失败：" + subtitleFile);
+        }
+        totalMs = cueCount * CUE_INTERVAL_MS;
+        random = new SplittableRandom(42);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        subtitleParser.close();
+        Files.deleteIfExists(subtitleFile);
+    }
+
+    @Benchmark
+    public String sequentialPlayback() {
+        playhead += 100; // 进度事件默认每秒10次
+        if (playhead >= totalMs) {
+            playhead = 0;
+        }
+        return subtitleParser.getCurrentSubtitle(playhead);
+    }
+
+    @Benchmark
+    public String randomSeek() {
+        return subtitleParser.getCurrentSubtitle(random.nextLong(totalMs));
+    }
+
+    private static String clock(long ms) {
+        return String.format("%02d:%02d:%02d,%03d", ms / 3_600_000, ms / 60_000 % 60, ms / 1000 % 60, ms % 1000);
+    }
+}
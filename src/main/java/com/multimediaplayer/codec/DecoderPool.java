@@ -0,0 +1,159 @@
+package com.multimediaplayer.codec;
+
+import com.multimediaplayer.codec.api.DecoderExecutors;
+import javafx.scene.media.MediaPlayer;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 解码实例池：按媒体URI缓存已准备好的空闲MediaPlayer，重播最近的媒体无需重新加载
+ * 空闲实例数超过上限时淘汰最久未使用的实例（上限可在运行中调整）；所有原生资源都在释放线程上释放，不阻塞调用方
+ * 释放线程来自解码引擎的DecoderExecutors（多会话时为共享线程），实例池关闭时只等待已提交的释放完成，不关闭线程
+ * 指标：命中/未命中次数、存活实例数（正在使用 + 空闲）
+ */
+class DecoderPool implements AutoCloseable {
+    private final Logger logger;
+    private int capacity; // 由this锁保护
+    // 空闲实例：URI → 播放器，按访问顺序排列（每个URI最多一个空闲实例）
+    private final Map<String, MediaPlayer> idlePlayers = new LinkedHashMap<>(16, 0.75f, true);
+    private final DecoderExecutors executors;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicInteger liveInstances = new AtomicInteger();
+    private boolean closed = false;
+
+    DecoderPool(Logger logger, int capacity, DecoderExecutors executors) {
+        this.logger = logger;
+        this.capacity = Math.max(0, capacity);
+        this.executors = executors;
+    }
+
+    /**
+     * 获取指定URI的播放器：优先复用空闲实例，否则通过factory新建
+     */
+    MediaPlayer acquire(String uri, Function<String, MediaPlayer> factory) {
+        MediaPlayer player;
+        synchronized (this) {
+            player = idlePlayers.remove(uri);
+        }
+        if (player != null && player.getStatus() != MediaPlayer.Status.HALTED) {
+            hits.incrementAndGet();
+            logger.debug("解码实例命中：{}", uri);
+            return player;
+        }
+        if (player != null) {
+            dispose(player); // 空闲期间出错的实例不可复用
+        }
+        misses.incrementAndGet();
+        player = factory.apply(uri);
+        liveInstances.incrementAndGet();
+        return player;
+    }
+
+    /**
+     * 归还播放器：停止后放入空闲表，超出容量时淘汰最久未使用的实例
+     */
+    void release(MediaPlayer player) {
+        if (player == null) {
+            return;
+        }
+        if (player.getStatus() == MediaPlayer.Status.HALTED) {
+            dispose(player);
+            return;
+        }
+        player.stop(); // 回到起始位置，下次获取可直接播放
+        String uri = player.getMedia().getSource();
+        List<MediaPlayer> evicted = new ArrayList<>();
+        synchronized (this) {
+            if (closed || capacity == 0) {
+                evicted.add(player);
+            } else {
+                MediaPlayer previous = idlePlayers.put(uri, player);
+                if (previous != null && previous != player) {
+                    evicted.add(previous);
+                }
+                evictOverCapacity(evicted);
+            }
+        }
+        evicted.forEach(this::dispose);
+    }
+
+    /**
+     * 调整空闲实例上限，缩小时立即淘汰最久未使用的实例
+     */
+    void setCapacity(int capacity) {
+        List<MediaPlayer> evicted = new ArrayList<>();
+        synchronized (this) {
+            this.capacity = Math.max(0, capacity);
+            evictOverCapacity(evicted);
+        }
+        evicted.forEach(this::dispose);
+    }
+
+    private void evictOverCapacity(List<MediaPlayer> evicted) {
+        var iterator = idlePlayers.values().iterator();
+        while (idlePlayers.size() > capacity && iterator.hasNext()) {
+            evicted.add(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 异步释放原生资源（释放线程已关闭时同步释放）
+     */
+    void dispose(MediaPlayer player) {
+        if (player == null) {
+            return;
+        }
+        liveInstances.decrementAndGet();
+        try {
+            executors.releaseExecutor().execute(player::dispose);
+        } catch (Exception e) {
+            player.dispose();
+        }
+    }
+
+    long getHitCount() {
+        return hits.get();
+    }
+
+    long getMissCount() {
+        return misses.get();
+    }
+
+    int getLiveInstances() {
+        return liveInstances.get();
+    }
+
+    synchronized int getIdleInstances() {
+        return idlePlayers.size();
+    }
+
+    @Override
+    public String toString() {
+        return "命中=" + getHitCount() + "，未命中=" + getMissCount()
+                + "，存活=" + getLiveInstances() + "，空闲=" + getIdleInstances();
+    }
+
+    @Override
+    public void close() {
+        List<MediaPlayer> remaining;
+        synchronized (this) {
+            closed = true;
+            remaining = new ArrayList<>(idlePlayers.values());
+            idlePlayers.clear();
+        }
+        remaining.forEach(this::dispose);
+        executors.awaitReleases(5, TimeUnit.SECONDS);
+        logger.info("解码实例池已关闭：{}", this);
+    }
+}
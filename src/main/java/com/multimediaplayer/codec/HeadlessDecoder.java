@@ -0,0 +1,250 @@
+package com.multimediaplayer.codec;
+
+import com.multimediaplayer.codec.api.CodecService;
+import com.multimediaplayer.codec.api.PlaybackListener;
+import com.multimediaplayer.codec.api.SeekMode;
+import com.multimediaplayer.container.AppContext;
+import com.multimediaplayer.extension.api.ConfigService;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * 无界面解码引擎（codec.engine=headless）：不加载媒体文件、不依赖JavaFX，按时钟模拟播放
+ * - 位置由System.nanoTime与播放速率推算，播放期间按固定间隔上报；到达时长后按无缝切换/播放结束流程通知
+ * - 所有实例共享少量调度线程，单个JVM内可同时模拟数千个播放会话
+ * - 故障注入：init按概率失败；播放到指定位置时上报解码异常
+ * 配置：codec.headless.durationMs、tickMs、initFailureRate、failAtMs；速率取player.speed（支持热更新）
+ */
+public class HeadlessDecoder implements CodecService {
+    private static final AtomicInteger THREAD_INDEX = new AtomicInteger();
+    private static final ScheduledExecutorService TICKER = Executors.newScheduledThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2), r -> {
+                Thread thread = new Thread(r, "headless-decoder-" + THREAD_INDEX.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final Logger logger;
+    private final ConfigService configService;
+    private final long durationMs;
+    private final long tickMs;
+    private final double initFailureRate;
+    private final long failAtMs; // 小于0表示不注入
+    private final BiConsumer<String, String> configListener = this::onConfigChanged;
+    private volatile boolean gaplessEnabled;
+    private volatile PlaybackListener playbackListener;
+    private volatile Supplier<String> nextMediaSupplier;
+
+    // 时钟状态（由this锁保护）
+    private String mediaPath;
+    private long anchorPositionMs;
+    private long anchorNanos;
+    private double rate;
+    private boolean running;
+    private boolean failed;
+    private ScheduledFuture<?> ticker;
+
+    public HeadlessDecoder(AppContext appContext) {
+        this.logger = appContext.getGlobalLogger();
+        this.configService = appContext.getModule(ConfigService.class);
+        this.durationMs = Math.max(1, configService.getLong("codec.headless.durationMs", 60_000));
+        this.tickMs = Math.max(1, configService.getLong("codec.headless.tickMs", 100));
+        this.initFailureRate = configService.getDouble("codec.headless.initFailureRate", 0);
+        this.failAtMs = configService.getLong("codec.headless.failAtMs", -1);
+        this.gaplessEnabled = configService.getBoolean("player.gapless.enabled", true);
+        this.rate = validRate(configService.getDouble("player.speed", 1.0));
+        configService.registerChangeListener("player.", configListener);
+    }
+
+    @Override
+    public void init(String mediaPath) {
+        if (initFailureRate > 0 && ThreadLocalRandom.current().nextDouble() < initFailureRate) {
+            throw new RuntimeException("模拟媒体初始化失败：" + mediaPath);
+        }
+        synchronized (this) {
+            cancelTicker();
+            this.mediaPath = mediaPath;
+            this.anchorPositionMs = 0;
+            this.anchorNanos = System.nanoTime();
+            this.running = false;
+            this.failed = false;
+        }
+        logger.debug("模拟媒体初始化：{}，时长：{}ms", mediaPath, durationMs);
+    }
+
+    @Override
+    public synchronized void startDecode() {
+        if (mediaPath == null) {
+            throw new RuntimeException("请先调用init初始化媒体");
+        }
+        if (running) {
+            return;
+        }
+        anchorNanos = System.nanoTime();
+        running = true;
+        ticker = TICKER.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void pauseDecode() {
+        if (running) {
+            anchorPositionMs = positionAt(System.nanoTime());
+            running = false;
+            cancelTicker();
+        }
+    }
+
+    @Override
+    public synchronized void stopDecode() {
+        anchorPositionMs = 0;
+        running = false;
+        cancelTicker();
+    }
+
+    @Override
+    public void seek(Duration position, SeekMode mode) {
+        long targetMs;
+        synchronized (this) {
+            if (mediaPath == null) {
+                throw new RuntimeException("请先调用init初始化媒体");
+            }
+            targetMs = Math.min(Math.max(0, position.toMillis()), durationMs);
+            anchorPositionMs = targetMs;
+            anchorNanos = System.nanoTime();
+        }
+        // 与真实解码一致：跳转完成后上报一次新位置
+        PlaybackListener listener = playbackListener;
+        if (listener != null) {
+            listener.onPositionChanged(targetMs);
+        }
+    }
+
+    @Override
+    public long getMediaDuration() {
+        return durationMs;
+    }
+
+    @Override
+    public synchronized long getCurrentPosition() {
+        return mediaPath == null ? 0 : positionAt(System.nanoTime());
+    }
+
+    @Override
+    public void setPlaybackListener(PlaybackListener listener) {
+        this.playbackListener = listener;
+    }
+
+    @Override
+    public void setNextMediaSupplier(Supplier<String> supplier) {
+        this.nextMediaSupplier = supplier;
+    }
+
+    // 调度线程回调：上报位置，按需注入故障或处理播放结束
+    private void tick() {
+        long position;
+        boolean fail = false;
+        boolean ended = false;
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            position = positionAt(System.nanoTime());
+            if (failAtMs >= 0 && position >= failAtMs && !failed) {
+                failed = true;
+                running = false;
+                anchorPositionMs = position;
+                cancelTicker();
+                fail = true;
+            } else if (position >= durationMs) {
+                position = durationMs;
+                ended = true;
+            }
+        }
+        PlaybackListener listener = playbackListener;
+        if (listener == null) {
+            return;
+        }
+        if (fail) {
+            listener.onError("模拟解码异常：" + position + "ms");
+            return;
+        }
+        listener.onPositionChanged(position);
+        if (ended) {
+            finishMedia(listener);
+        }
+    }
+
+    // 到达结尾：有下一首时直接切换（模拟无缝播放），否则停止计时并通知播放结束
+    private void finishMedia(PlaybackListener listener) {
+        Supplier<String> supplier = nextMediaSupplier;
+        String nextPath = gaplessEnabled && supplier != null ? supplier.get() : null;
+        synchronized (this) {
+            if (nextPath != null) {
+                mediaPath = nextPath;
+                anchorPositionMs = 0;
+                anchorNanos = System.nanoTime();
+                failed = false;
+            } else {
+                anchorPositionMs = durationMs;
+                running = false;
+                cancelTicker();
+            }
+        }
+        if (nextPath != null) {
+            listener.onMediaSwitched(nextPath, durationMs);
+        } else {
+            listener.onEndOfMedia();
+        }
+    }
+
+    private long positionAt(long now) {
+        if (!running) {
+            return anchorPositionMs;
+        }
+        return Math.min(durationMs, anchorPositionMs + (long) ((now - anchorNanos) / 1_000_000d * rate));
+    }
+
+    private void cancelTicker() {
+        if (ticker != null) {
+            ticker.cancel(false);
+            ticker = null;
+        }
+    }
+
+    // 速率变化：先以旧速率结算当前位置，再切换速率
+    private void onConfigChanged(String key, String value) {
+        if ("player.speed".equals(key)) {
+            synchronized (this) {
+                long now = System.nanoTime();
+                anchorPositionMs = positionAt(now);
+                anchorNanos = now;
+                rate = validRate(configService.getDouble(key, 1.0));
+            }
+        } else if ("player.gapless.enabled".equals(key)) {
+            gaplessEnabled = configService.getBoolean(key, true);
+        }
+    }
+
+    private static double validRate(double rate) {
+        return rate > 0 ? rate : 1.0;
+    }
+
+    @Override
+    public void close() {
+        configService.unregisterChangeListener(configListener);
+        synchronized (this) {
+            running = false;
+            cancelTicker();
+        }
+        logger.debug("模拟解码资源已释放");
+    }
+}
@@ -0,0 +1,219 @@
+package com.multimediaplayer.codec;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import org.slf4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 缩略图磁盘缓存：按内容寻址（文件大小 + 首尾各64KB内容 + 生成参数的SHA-256），媒体移动或改名后仍可命中
+ * 每个条目一个.sprite文件：头部（魔数、版本、间隔、格尺寸、列数、帧数）+ JPEG编码的精灵图
+ * 读取使用JavaFX解码；编码由ThumbnailEncoder完成，只在写入时加载AWT
+ * 总大小超过上限时按最近使用顺序淘汰（命中时更新文件修改时间，重启后仍保留LRU顺序）
+ * 仅由缩略图工作线程调用
+ */
+final class ThumbnailCache {
+    private static final int MAGIC = 0x4D4D5054; // "MMPT"
+    private static final int VERSION = 1;
+    private static final String SUFFIX = ".sprite";
+    private static final int SAMPLE_BYTES = 64 * 1024;
+
+    private final Logger logger;
+    private final Path directory;
+    private final long maxBytes;
+    // key → 文件大小，按访问顺序排列
+    private final Map<String, Long> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes = 0;
+    private boolean loaded = false;
+
+    ThumbnailCache(Logger logger, Path directory, long maxBytes) {
+        this.logger = logger;
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 计算内容地址：只读取文件首尾样本，大文件也只需两次小读取
+     */
+    static String keyOf(File mediaFile, String parameters) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (RandomAccessFile file = new RandomAccessFile(mediaFile, "r")) {
+            long length = file.length();
+            byte[] sample = new byte[(int) Math.min(SAMPLE_BYTES, length)];
+            file.readFully(sample);
+            digest.update(sample);
+            if (length > SAMPLE_BYTES) {
+                file.seek(Math.max(SAMPLE_BYTES, length - SAMPLE_BYTES));
+                int tail = (int) (length - file.getFilePointer());
+                sample = new byte[tail];
+                file.readFully(sample);
+                digest.update(sample);
+            }
+            digest.update(Long.toString(length).getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update(parameters.getBytes(StandardCharsets.UTF_8));
+        StringBuilder key = new StringBuilder();
+        byte[] hash = digest.digest();
+        for (int i = 0; i < 20; i++) {
+            key.append(Character.forDigit((hash[i] >> 4) & 0xF, 16)).append(Character.forDigit(hash[i] & 0xF, 16));
+        }
+        return key.toString();
+    }
+
+    ThumbnailSprite load(String key) {
+        ensureLoaded();
+        if (!entries.containsKey(key)) {
+            return null;
+        }
+        Path file = fileOf(key);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("缩略图缓存格式不匹配");
+            }
+            long intervalMs = in.readLong();
+            int tileWidth = in.readInt();
+            int tileHeight = in.readInt();
+            int columns = in.readInt();
+            int count = in.readInt();
+            Image sheet = new Image(in); // 同步解码
+            int width = columns * tileWidth;
+            int height = ThumbnailSprite.rows(count, columns) * tileHeight;
+            if (sheet.isError() || (int) sheet.getWidth() != width || (int) sheet.getHeight() != height) {
+                throw new IOException("缩略图缓存已损坏");
+            }
+            int[] pixels = new int[width * height];
+            sheet.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return new ThumbnailSprite(intervalMs, tileWidth, tileHeight, columns, count, pixels);
+        } catch (IOException e) {
+            logger.warn("缩略图缓存读取失败，将重新生成：{}（{}）", file, e.getMessage());
+            remove(key);
+            return null;
+        }
+    }
+
+    void store(String key, ThumbnailSprite sprite) {
+        ensureLoaded();
+        Path file = fileOf(key);
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(directory);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile), 64 * 1024))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(sprite.intervalMs);
+                out.writeInt(sprite.tileWidth);
+                out.writeInt(sprite.tileHeight);
+                out.writeInt(sprite.columns);
+                out.writeInt(sprite.count);
+                ThumbnailEncoder.writeJpeg(sprite, out);
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Long previous = entries.put(key, Files.size(file));
+            totalBytes += entries.get(key) - (previous == null ? 0 : previous);
+            evict();
+        } catch (IOException e) {
+            logger.warn("缩略图缓存写入失败：{}", file, e);
+        } finally {
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException ignored) {
+                // 临时文件残留不影响缓存
+            }
+        }
+    }
+
+    // 首次使用时扫描缓存目录，按修改时间恢复LRU顺序
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            logger.warn("缩略图缓存目录读取失败：{}", directory, e);
+            return;
+        }
+        Map<Path, Long> modified = new LinkedHashMap<>();
+        for (Path file : files) {
+            try {
+                modified.put(file, Files.getLastModifiedTime(file).toMillis());
+            } catch (IOException e) {
+                // 扫描期间被删除
+            }
+        }
+        modified.keySet().stream().sorted(Comparator.comparing(modified::get)).forEach(file -> {
+            String name = file.getFileName().toString();
+            try {
+                long size = Files.size(file);
+                entries.put(name.substring(0, name.length() - SUFFIX.length()), size);
+                totalBytes += size;
+            } catch (IOException e) {
+                // 扫描期间被删除
+            }
+        });
+        evict();
+        logger.info("缩略图缓存：{}个条目，{}KB", entries.size(), totalBytes / 1024);
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            totalBytes -= eldest.getValue();
+            deleteFile(eldest.getKey());
+        }
+    }
+
+    private void remove(String key) {
+        Long size = entries.remove(key);
+        if (size != null) {
+            totalBytes -= size;
+        }
+        deleteFile(key);
+    }
+
+    private void deleteFile(String key) {
+        try {
+            Files.deleteIfExists(fileOf(key));
+        } catch (IOException e) {
+            logger.debug("缩略图缓存删除失败：{}（{}）", key, e.getMessage());
+        }
+    }
+
+    private Path fileOf(String key) {
+        return directory.resolve(key + SUFFIX);
+    }
+}
@@ -0,0 +1,24 @@
+package com.multimediaplayer.codec;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 精灵图JPEG编码：JavaFX没有图像编码API，只在写入磁盘缓存时借助ImageIO
+ * 单独成类，读取缓存与预览路径不会加载AWT
+ */
+final class ThumbnailEncoder {
+
+    private ThumbnailEncoder() {
+    }
+
+    static void writeJpeg(ThumbnailSprite sprite, OutputStream out) throws IOException {
+        BufferedImage sheet = new BufferedImage(sprite.sheetWidth(), sprite.sheetHeight(), BufferedImage.TYPE_INT_RGB);
+        sheet.setRGB(0, 0, sprite.sheetWidth(), sprite.sheetHeight(), sprite.pixels, 0, sprite.sheetWidth());
+        if (!ImageIO.write(sheet, "jpg", out)) {
+            throw new IOException("没有可用的JPEG编码器");
+        }
+    }
+}
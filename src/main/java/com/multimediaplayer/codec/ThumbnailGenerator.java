@@ -0,0 +1,330 @@
+package com.multimediaplayer.codec;
+
+import com.multimediaplayer.codec.api.ThumbnailService;
+import com.multimediaplayer.container.AppContext;
+import com.multimediaplayer.extension.api.ConfigService;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.media.Media;
+import javafx.scene.media.MediaPlayer;
+import javafx.scene.media.MediaView;
+import javafx.util.Duration;
+import org.slf4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 缩略图生成：单个低优先级工作线程逐个处理请求，用独立的静音MediaPlayer + MediaView
+ * 按固定间隔seek并截图（截图在FX线程完成，每帧之间休眠限流，不影响正在播放的媒体）
+ * 结果写入磁盘缓存（ThumbnailCache），最近使用的精灵图保留在内存中
+ * 生成失败的媒体（纯音频、无法解码）按缓存键记录，本次运行内不再重复排队抽帧
+ */
+public class ThumbnailGenerator implements ThumbnailService {
+    private static final long STEP_TIMEOUT_MS = 5000;
+    private static final int COLUMNS = 10;
+
+    private final Logger logger;
+    private final boolean enabled;
+    private final long intervalMs;
+    private final int maxFrames;
+    private final int tileWidth;
+    private final long throttleMs;
+    private final int memoryCapacity;
+    private final long memoryMaxBytes;
+    private final ThumbnailCache diskCache;
+
+    private final LinkedBlockingDeque<String> queue = new LinkedBlockingDeque<>();
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Map<String, ThumbnailSprite> memoryCache = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes = 0; // memoryCache中精灵图像素的总字节数（持有memoryCache锁访问）
+    private final Set<String> failedKeys = ConcurrentHashMap.newKeySet();            // 生成失败的缓存键
+    private final Map<String, String> failedPaths = new ConcurrentHashMap<>();      // 媒体路径 → 失败时的缓存键
+    private volatile String previewPath;
+    private volatile ThumbnailSprite previewSprite;
+    private volatile boolean closed = false;
+    private Thread worker;
+
+    public ThumbnailGenerator(AppContext appContext) {
+        this.logger = appContext.getGlobalLogger();
+        ConfigService configService = appContext.getModule(ConfigService.class);
+        this.enabled = configService.getBoolean("thumbnail.enabled", true);
+        this.intervalMs = Math.max(1, configService.getLong("thumbnail.intervalSeconds", 10)) * 1000;
+        this.maxFrames = Math.max(1, configService.getInt("thumbnail.maxFrames", 100));
+        this.tileWidth = Math.max(16, configService.getInt("thumbnail.width", 160));
+        this.throttleMs = Math.max(0, configService.getLong("thumbnail.throttleMs", 50));
+        this.memoryCapacity = Math.max(1, configService.getInt("thumbnail.memoryCacheSize", 16));
+        this.memoryMaxBytes = Math.max(1, configService.getLong("thumbnail.memoryCacheMB", 64)) * 1024 * 1024;
+        this.diskCache = new ThumbnailCache(logger, Paths.get(configService.getConfig("thumbnail.cache.dir", "thumbnail_cache")),
+                configService.getLong("thumbnail.cache.maxMB", 256) * 1024 * 1024);
+    }
+
+    @Override
+    public void requestThumbnails(String mediaPath) {
+        enqueue(mediaPath, false);
+    }
+
+    @Override
+    public Image getThumbnail(String mediaPath) {
+        ThumbnailSprite sprite;
+        synchronized (memoryCache) {
+            sprite = memoryCache.get(mediaPath);
+        }
+        if (sprite == null) {
+            enqueue(mediaPath, false);
+            return null;
+        }
+        return sprite.poster();
+    }
+
+    @Override
+    public void setPreviewMedia(String mediaPath) {
+        previewPath = mediaPath;
+        ThumbnailSprite sprite;
+        synchronized (memoryCache) {
+            sprite = mediaPath == null ? null : memoryCache.get(mediaPath);
+        }
+        previewSprite = sprite;
+        if (mediaPath != null && sprite == null) {
+            enqueue(mediaPath, true);
+        }
+    }
+
+    @Override
+    public Image getPreviewFrame(long positionMs) {
+        ThumbnailSprite sprite = previewSprite;
+        return sprite == null ? null : sprite.tile(sprite.tileIndex(positionMs));
+    }
+
+    // 当前播放的媒体插到队首，其余按请求顺序处理；同一媒体排队中只保留一份
+    private void enqueue(String mediaPath, boolean urgent) {
+        if (!enabled || closed || mediaPath == null || failedPaths.containsKey(mediaPath)) {
+            return;
+        }
+        if (!pending.add(mediaPath)) {
+            if (urgent && queue.remove(mediaPath)) {
+                queue.addFirst(mediaPath);
+            }
+            return;
+        }
+        if (urgent) {
+            queue.addFirst(mediaPath);
+        } else {
+            queue.addLast(mediaPath);
+        }
+        startWorker();
+    }
+
+    private synchronized void startWorker() {
+        if (worker != null || closed) {
+            return;
+        }
+        worker = new Thread(this::runWorker, "thumbnail-worker");
+        worker.setDaemon(true);
+        worker.setPriority(Thread.MIN_PRIORITY);
+        worker.start();
+    }
+
+    private void runWorker() {
+        while (!closed) {
+            String mediaPath;
+            try {
+                mediaPath = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                ThumbnailSprite sprite = loadOrGenerate(mediaPath);
+                if (sprite != null) {
+                    remember(mediaPath, sprite);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                logger.warn("缩略图生成失败：{}（{}）", mediaPath, e.getMessage());
+            } finally {
+                pending.remove(mediaPath);
+            }
+        }
+    }
+
+    private ThumbnailSprite loadOrGenerate(String mediaPath) throws Exception {
+        File mediaFile = new File(mediaPath);
+        if (!mediaFile.isFile()) {
+            return null;
+        }
+        String key = ThumbnailCache.keyOf(mediaFile, tileWidth + "/" + intervalMs + "/" + maxFrames + "/" + COLUMNS);
+        if (failedKeys.contains(key)) {
+            failedPaths.put(mediaPath, key); // 同一内容的其他路径此前已失败
+            return null;
+        }
+        ThumbnailSprite sprite = diskCache.load(key);
+        if (sprite == null) {
+            long begin = System.nanoTime();
+            try {
+                sprite = extract(mediaFile);
+            } catch (InterruptedException e) {
+                throw e; // 服务关闭，不算生成失败
+            } catch (Exception e) {
+                failedKeys.add(key);
+                failedPaths.put(mediaPath, key);
+                throw e;
+            }
+            logger.info("缩略图生成完成：{}，{}帧，耗时{}ms", mediaPath, sprite.count, (System.nanoTime() - begin) / 1_000_000);
+            diskCache.store(key, sprite);
+        }
+        return sprite;
+    }
+
+    private void remember(String mediaPath, ThumbnailSprite sprite) {
+        synchronized (memoryCache) {
+            ThumbnailSprite replaced = memoryCache.put(mediaPath, sprite);
+            memoryBytes += sprite.memoryBytes() - (replaced == null ? 0 : replaced.memoryBytes());
+            // 条目数与字节数双重上限，至少保留刚加入的条目
+            while (memoryCache.size() > 1 && (memoryCache.size() > memoryCapacity || memoryBytes > memoryMaxBytes)) {
+                memoryBytes -= memoryCache.remove(memoryCache.keySet().iterator().next()).memoryBytes();
+            }
+        }
+        if (mediaPath.equals(previewPath)) {
+            previewSprite = sprite;
+        }
+    }
+
+    // ---------------------- 抽帧 ----------------------
+
+    private ThumbnailSprite extract(File mediaFile) throws Exception {
+        CompletableFuture<Void> ready = new CompletableFuture<>();
+        MediaPlayer player = onFxThread(() -> {
+            Media media = new Media(mediaFile.toURI().toString());
+            MediaPlayer created = new MediaPlayer(media);
+            created.setMute(true);
+            created.setOnReady(() -> ready.complete(null));
+            created.setOnError(() -> ready.completeExceptionally(created.getError()));
+            return created;
+        });
+        try {
+            await(ready);
+            Media media = player.getMedia();
+            long durationMs = (long) media.getDuration().toMillis();
+            if (media.getWidth() <= 0 || media.getHeight() <= 0 || durationMs <= 0) {
+                throw new IOException("没有视频画面或时长未知");
+            }
+            int tileHeight = Math.max(2, Math.round((float) tileWidth * media.getHeight() / media.getWidth()) & ~1);
+            long interval = Math.max(intervalMs, (durationMs + maxFrames - 1) / maxFrames);
+            int count = (int) Math.max(1, Math.min(maxFrames, durationMs / interval));
+            int columns = Math.min(COLUMNS, count);
+            int[] pixels = new int[columns * tileWidth * ThumbnailSprite.rows(count, columns) * tileHeight];
+            ThumbnailSprite sprite = new ThumbnailSprite(interval, tileWidth, tileHeight, columns, count, pixels);
+
+            MediaView view = onFxThread(() -> {
+                MediaView created = new MediaView(player);
+                created.setFitWidth(tileWidth);
+                created.setFitHeight(tileHeight);
+                created.setPreserveRatio(false);
+                player.pause(); // 暂停状态下seek会刷新画面
+                return created;
+            });
+            for (int i = 0; i < count && !closed; i++) {
+                // 取每个区间的中点，避开场景切换的边界帧
+                long target = Math.min(durationMs - 1, i * interval + interval / 2);
+                seekAndWait(player, target);
+                if (throttleMs > 0) {
+                    Thread.sleep(throttleMs);
+                }
+                int offset = sprite.tileOffset(i);
+                onFxThread(() -> {
+                    WritableImage frame = view.snapshot(null, new WritableImage(tileWidth, tileHeight));
+                    int width = Math.min(tileWidth, (int) frame.getWidth());
+                    int height = Math.min(tileHeight, (int) frame.getHeight());
+                    frame.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(),
+                            pixels, offset, sprite.sheetWidth());
+                    return null;
+                });
+            }
+            if (closed) {
+                throw new InterruptedException();
+            }
+            return sprite;
+        } finally {
+            Platform.runLater(player::dispose);
+        }
+    }
+
+    // seek后等待currentTime更新（画面随之刷新），超时视为该帧已就绪
+    private void seekAndWait(MediaPlayer player, long targetMs) throws Exception {
+        CompletableFuture<Void> seeked = new CompletableFuture<>();
+        ChangeListener<Duration> listener = (observable, oldTime, newTime) -> seeked.complete(null);
+        onFxThread(() -> {
+            player.currentTimeProperty().addListener(listener);
+            player.seek(Duration.millis(targetMs));
+            return null;
+        });
+        try {
+            seeked.get(STEP_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.debug("缩略图seek超时：{}ms", targetMs);
+        } finally {
+            Platform.runLater(() -> player.currentTimeProperty().removeListener(listener));
+        }
+    }
+
+    private <T> T onFxThread(Callable<T> task) throws Exception {
+        if (Platform.isFxApplicationThread()) {
+            return task.call();
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                result.complete(task.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return await(result);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get(STEP_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Thread current;
+        synchronized (this) {
+            current = worker;
+        }
+        if (current != null) {
+            current.interrupt();
+        }
+        queue.clear();
+        pending.clear();
+        failedKeys.clear();
+        failedPaths.clear();
+        synchronized (memoryCache) {
+            memoryCache.clear();
+            memoryBytes = 0;
+        }
+        previewSprite = null;
+        logger.info("缩略图服务已关闭");
+    }
+}
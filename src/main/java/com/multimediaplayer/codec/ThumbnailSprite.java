@@ -0,0 +1,71 @@
+package com.multimediaplayer.codec;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+/**
+ * 缩略图精灵图：按时间顺序排列的帧网格（行优先，每行columns格），第i格取自区间 [i × interval, (i+1) × interval) 的中点
+ * （i × interval + interval / 2），tileIndex按区间向下取整定位到该格
+ * 像素以ARGB整型数组保存；单帧Image按需创建并缓存
+ */
+final class ThumbnailSprite {
+    final long intervalMs;
+    final int tileWidth;
+    final int tileHeight;
+    final int columns;
+    final int count;
+    final int[] pixels; // 宽 columns × tileWidth，高 rows × tileHeight
+    private final Image[] tiles;
+
+    ThumbnailSprite(long intervalMs, int tileWidth, int tileHeight, int columns, int count, int[] pixels) {
+        this.intervalMs = intervalMs;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.columns = columns;
+        this.count = count;
+        this.pixels = pixels;
+        this.tiles = new Image[count];
+    }
+
+    static int rows(int count, int columns) {
+        return (count + columns - 1) / columns;
+    }
+
+    int sheetWidth() {
+        return columns * tileWidth;
+    }
+
+    int sheetHeight() {
+        return rows(count, columns) * tileHeight;
+    }
+
+    // 第index格在像素数组中的起始偏移
+    int tileOffset(int index) {
+        return (index / columns) * tileHeight * sheetWidth() + (index % columns) * tileWidth;
+    }
+
+    int tileIndex(long positionMs) {
+        return (int) Math.max(0, Math.min(count - 1, positionMs / intervalMs));
+    }
+
+    // 封面：取约10%处的画面，避开片头黑场
+    Image poster() {
+        return tile(count / 10);
+    }
+
+    synchronized Image tile(int index) {
+        Image tile = tiles[index];
+        if (tile == null) {
+            WritableImage image = new WritableImage(tileWidth, tileHeight);
+            image.getPixelWriter().setPixels(0, 0, tileWidth, tileHeight, PixelFormat.getIntArgbInstance(),
+                    pixels, tileOffset(index), sheetWidth());
+            tiles[index] = tile = image;
+        }
+        return tile;
+    }
+
+    long memoryBytes() {
+        return (long) pixels.length * Integer.BYTES;
+    }
+}
@@ -1,8 +1,13 @@
 package com.multimediaplayer.codec;
 
 import com.multimediaplayer.codec.api.CodecService;
+import com.multimediaplayer.codec.api.DecoderExecutors;
+import com.multimediaplayer.codec.api.PlaybackListener;
+import com.multimediaplayer.codec.api.SeekMode;
+import com.multimediaplayer.codec.api.VideoRenderService;
 import com.multimediaplayer.container.AppContext;
 import com.multimediaplayer.extension.api.ConfigService;
+import javafx.application.Platform;
 import javafx.scene.Node;
 import javafx.scene.media.Media;
 import javafx.scene.media.MediaPlayer;
@@ -10,53 +15,325 @@ import javafx.scene.media.MediaView;
 import javafx.util.Duration;
 import org.slf4j.Logger;
 import java.io.File;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 /**
  * 视频解码实现
  * 内部封装Media/MediaPlayer，对外仅暴露CodecService接口
+ * 无缝播放：当前媒体进入结尾预载窗口时，在后台预取并于第二个MediaPlayer中准备下一首，播放结束时直接切换
+ * 播放器实例从DecoderPool获取并归还，切换媒体不泄漏原生资源，重播最近媒体无需重新加载
+ * 音量、速度、预载窗口与解码实例池上限订阅配置变化，修改后对正在播放的媒体立即生效
+ * initAsync：文件校验与媒体加载在后台I/O线程执行，播放器的释放与切换在FX线程执行
+ * 加载请求按代次编号，被新请求取代的加载不再挂载，已获取的播放器归还实例池，返回的Future以CancellationException完成
+ * 后台I/O与原生资源释放使用DecoderExecutors：单独创建时独占并随关闭释放，多会话时使用会话管理器的共享线程
  */
-public class VideoDecoder implements CodecService {
+public class VideoDecoder implements CodecService, VideoRenderService {
     private final AppContext appContext;
     private final Logger logger;
     private final ConfigService configService;
 
     // 内部私有成员（不对外暴露）
-    private Media media;
-    private MediaPlayer mediaPlayer;
+    private volatile Media media;
+    private volatile MediaPlayer mediaPlayer;
     private MediaView mediaView;
     private AudioRenderer audioRenderer; // 关联音频渲染
+    private volatile PlaybackListener playbackListener;
+
+    // 无缝播放：预载的下一首（仅在FX线程中读写，其他线程经discardPrerollOnFxThread切回）
+    private volatile boolean gaplessEnabled;
+    private volatile long prerollWindowMs;
+    private volatile Supplier<String> nextMediaSupplier;
+    private boolean prerollRequested = false;
+    private long prerollGeneration; // 每次丢弃预载后递增
+    private String nextMediaPath;
+    private MediaPlayer nextPlayer;
+    private final DecoderPool decoderPool;
+    private final BiConsumer<String, String> configListener = this::onConfigChanged;
+    private final DecoderExecutors executors;
+    private final Executor ioExecutor;
+    private final AtomicLong loadGeneration = new AtomicLong();
+    private final AtomicBoolean closed = new AtomicBoolean(false);
 
     public VideoDecoder(AppContext appContext) {
+        this(appContext, new DecoderExecutors());
+    }
+
+    /**
+     * @param executors 后台执行器，关闭解码器时一并关闭（共享执行器应传入forSession视图）
+     */
+    public VideoDecoder(AppContext appContext, DecoderExecutors executors) {
         this.appContext = appContext;
+        this.executors = executors;
+        this.ioExecutor = executors.ioExecutor();
         this.logger = appContext.getGlobalLogger();
         this.configService = appContext.getModule(ConfigService.class);
         this.audioRenderer = new AudioRenderer(this); // 初始化音频渲染
+        this.gaplessEnabled = configService.getBoolean("player.gapless.enabled", true);
+        this.prerollWindowMs = configService.getLong("player.gapless.prerollMs", 5000);
+        this.decoderPool = new DecoderPool(logger, configService.getInt("player.decoder.poolSize", 3), executors);
+        configService.registerChangeListener("player.", configListener);
     }
 
     @Override
     public void init(String mediaPath) {
-        // 内部校验：文件是否存在
+        loadGeneration.incrementAndGet(); // 同步加载同样取代尚未完成的异步加载
+        File mediaFile = checkMediaFile(mediaPath);
+        releaseCurrent();
+        attach(mediaPath, acquirePlayer(mediaFile));
+    }
+
+    @Override
+    public CompletableFuture<Void> initAsync(String mediaPath) {
+        // 与init顺序一致：先校验文件，再释放当前播放器（同一媒体可从实例池直接取回），最后加载并切换
+        long generation = loadGeneration.incrementAndGet();
+        return CompletableFuture.supplyAsync(() -> {
+                    ensureCurrent(generation, mediaPath);
+                    return checkMediaFile(mediaPath);
+                }, ioExecutor)
+                .thenApplyAsync(mediaFile -> {
+                    ensureCurrent(generation, mediaPath);
+                    releaseCurrent();
+                    return mediaFile;
+                }, Platform::runLater)
+                .thenApplyAsync(mediaFile -> {
+                    ensureCurrent(generation, mediaPath);
+                    return acquirePlayer(mediaFile);
+                }, ioExecutor)
+                .thenAcceptAsync(player -> {
+                    if (generation != loadGeneration.get()) {
+                        decoderPool.release(player);
+                        ensureCurrent(generation, mediaPath);
+                    }
+                    attach(mediaPath, player);
+                }, Platform::runLater);
+    }
+
+    // 内部校验：加载请求是否已被新请求取代
+    private void ensureCurrent(long generation, String mediaPath) {
+        if (generation != loadGeneration.get()) {
+            throw new CancellationException("加载已被新的请求取代：" + mediaPath);
+        }
+    }
+
+    // 内部校验：文件是否存在
+    private File checkMediaFile(String mediaPath) {
         File mediaFile = new File(mediaPath);
         if (!mediaFile.exists()) {
             throw new RuntimeException("媒体文件不存在：" + mediaPath);
         }
+        return mediaFile;
+    }
+
+    // 切换媒体：丢弃尚未使用的预载，当前播放器归还实例池
+    private void releaseCurrent() {
+        discardPrerollOnFxThread();
+        MediaPlayer previous = mediaPlayer;
+        this.mediaPlayer = null;
+        decoderPool.release(previous);
+    }
+
+    // 挂载JavaFX播放器（最近播放过的媒体直接复用）
+    private void attach(String mediaPath, MediaPlayer player) {
+        if (mediaPlayer != null && mediaPlayer != player) {
+            releaseCurrent(); // 兜底：不覆盖尚未归还的播放器
+        }
+        this.media = player.getMedia();
+        this.mediaPlayer = player;
+        if (mediaView != null) {
+            mediaView.setMediaPlayer(player);
+        }
+
+        logger.info("媒体初始化成功：{}，时长：{}ms（解码实例池：{}）", mediaPath, getMediaDuration(), decoderPool);
+    }
+
+    // 内部方法：从实例池获取播放器，并加载配置：音量、播放速度（复用的实例同样按最新配置设置）
+    private MediaPlayer acquirePlayer(File mediaFile) {
+        MediaPlayer player = decoderPool.acquire(mediaFile.toURI().toString(), this::createPlayer);
+        applyPlaybackSettings(player);
+        return player;
+    }
+
+    private void applyPlaybackSettings(MediaPlayer player) {
+        if (player != null) {
+            player.setVolume(configService.getDouble("player.volume", 0.8));
+            player.setRate(configService.getDouble("player.speed", 1.0));
+        }
+    }
 
-        // 初始化JavaFX Media
-        this.media = new Media(mediaFile.toURI().toString());
-        this.mediaPlayer = new MediaPlayer(media);
-        this.mediaView = new MediaView(mediaPlayer);
+    // 配置变化（通知线程回调）：播放器属性切回FX线程修改，当前与预载的播放器都更新
+    private void onConfigChanged(String key, String value) {
+        switch (key) {
+            case "player.volume":
+            case "player.speed":
+                Platform.runLater(() -> {
+                    applyPlaybackSettings(mediaPlayer);
+                    applyPlaybackSettings(nextPlayer);
+                    logger.info("播放配置已更新：{}={}", key, value);
+                });
+                break;
+            case "player.gapless.enabled":
+                gaplessEnabled = configService.getBoolean(key, true);
+                break;
+            case "player.gapless.prerollMs":
+                prerollWindowMs = configService.getLong(key, 5000);
+                break;
+            case "player.decoder.poolSize":
+                decoderPool.setCapacity(configService.getInt(key, 3));
+                logger.info("解码实例池上限已更新：{}", value);
+                break;
+            default:
+                break;
+        }
+    }
 
-        // 加载配置：音量、播放速度
-        double volume = Double.parseDouble(configService.getConfig("player.volume", "0.8"));
-        mediaPlayer.setVolume(volume);
-        mediaPlayer.setRate(Double.parseDouble(configService.getConfig("player.speed", "1.0")));
+    // 内部方法：创建播放器并绑定事件；事件只在该播放器为当前播放器时转发（实例复用后绑定依然有效）
+    private MediaPlayer createPlayer(String uri) {
+        MediaPlayer player = new MediaPlayer(new Media(uri));
 
         // 内部异常监听
-        mediaPlayer.setOnError(() -> {
-            logger.error("解码异常：{}", mediaPlayer.getError().getMessage());
+        player.setOnError(() -> {
+            String message = player.getError() == null ? "unknown" : player.getError().getMessage();
+            logger.error("解码异常：{}", message);
+            PlaybackListener listener = playbackListener;
+            if (player == mediaPlayer && listener != null) {
+                listener.onError(message);
+            } else if (player == nextPlayer) {
+                discardPreroll(); // 预载失败：播放结束时按普通流程处理
+            }
+        });
+
+        // 播放事件转发：位置变化由currentTimeProperty驱动，播放结束由setOnEndOfMedia通知
+        player.currentTimeProperty().addListener((observable, oldTime, newTime) -> {
+            if (player != mediaPlayer || newTime == null) {
+                return;
+            }
+            long positionMs = (long) newTime.toMillis();
+            PlaybackListener listener = playbackListener;
+            if (listener != null) {
+                listener.onPositionChanged(positionMs);
+            }
+            checkPreroll(positionMs);
+        });
+        player.setOnEndOfMedia(() -> {
+            if (player != mediaPlayer) {
+                return;
+            }
+            if (!swapToPreroll()) {
+                PlaybackListener listener = playbackListener;
+                if (listener != null) {
+                    listener.onEndOfMedia();
+                }
+            }
         });
+        return player;
+    }
 
-        logger.info("媒体初始化成功：{}，时长：{}秒", mediaPath, getMediaDuration());
+    // 内部方法：进入结尾窗口时预载下一首；下一首的获取、文件校验与加载在I/O线程执行，完成后回到FX线程挂为预载
+    private void checkPreroll(long positionMs) {
+        Supplier<String> supplier = nextMediaSupplier;
+        if (!gaplessEnabled || prerollRequested || supplier == null) {
+            return;
+        }
+        long duration = getMediaDuration();
+        if (duration <= 0 || duration - positionMs > prerollWindowMs) {
+            return;
+        }
+        prerollRequested = true;
+        long generation = prerollGeneration;
+        MediaPlayer current = mediaPlayer;
+        CompletableFuture.supplyAsync(() -> loadPreroll(supplier), ioExecutor)
+                .thenAcceptAsync(preroll -> {
+                    if (preroll == null) {
+                        return;
+                    }
+                    if (generation != prerollGeneration || current != mediaPlayer || nextPlayer != null) {
+                        decoderPool.release(preroll.player); // 预载期间已切换/停止：归还实例池
+                        return;
+                    }
+                    nextPlayer = preroll.player; // Media在后台加载，READY后即可立即播放
+                    nextMediaPath = preroll.mediaPath;
+                    logger.info("预载下一首：{}", preroll.mediaPath);
+                }, Platform::runLater)
+                .exceptionally(e -> {
+                    logger.warn("预载下一首失败：{}", e.getMessage());
+                    return null;
+                });
+    }
+
+    private Preroll loadPreroll(Supplier<String> supplier) {
+        String nextPath = supplier.get();
+        if (nextPath == null) {
+            return null;
+        }
+        File nextFile = new File(nextPath);
+        if (!nextFile.exists()) {
+            logger.warn("预载跳过，媒体文件不存在：{}", nextPath);
+            return null;
+        }
+        return new Preroll(nextPath, acquirePlayer(nextFile));
+    }
+
+    // 后台加载完成的预载结果
+    private static final class Preroll {
+        private final String mediaPath;
+        private final MediaPlayer player;
+
+        private Preroll(String mediaPath, MediaPlayer player) {
+            this.mediaPath = mediaPath;
+            this.player = player;
+        }
+    }
+
+    // 内部方法：播放结束时切换到预载的播放器，旧播放器归还实例池
+    private boolean swapToPreroll() {
+        MediaPlayer next = nextPlayer;
+        if (next == null || next.getStatus() == MediaPlayer.Status.HALTED) {
+            return false;
+        }
+        MediaPlayer previous = mediaPlayer;
+        String nextPath = nextMediaPath;
+        nextPlayer = null;
+        nextMediaPath = null;
+        prerollRequested = false;
+
+        this.mediaPlayer = next;
+        this.media = next.getMedia();
+        if (mediaView != null) {
+            mediaView.setMediaPlayer(next);
+        }
+        next.play();
+        decoderPool.release(previous);
+
+        PlaybackListener listener = playbackListener;
+        if (listener != null) {
+            listener.onMediaSwitched(nextPath, getMediaDuration());
+        }
+        logger.info("无缝切换到：{}", nextPath);
+        return true;
+    }
+
+    // 预载状态只在FX线程读写：非FX线程的调用切回FX线程执行（预载代次递增后，进行中的后台预载不会再挂载）
+    private void discardPrerollOnFxThread() {
+        if (Platform.isFxApplicationThread()) {
+            discardPreroll();
+        } else {
+            Platform.runLater(this::discardPreroll);
+        }
+    }
+
+    private void discardPreroll() {
+        prerollRequested = false;
+        prerollGeneration++; // 尚未完成的后台预载作废
+        MediaPlayer next = nextPlayer;
+        nextPlayer = null;
+        nextMediaPath = null;
+        decoderPool.release(next); // 已准备好的实例保留，稍后播放该媒体可直接复用
     }
 
     @Override
@@ -83,23 +360,67 @@ public class VideoDecoder implements CodecService {
         if (mediaPlayer != null) {
             mediaPlayer.stop();
             audioRenderer.stopAudio();
+            discardPrerollOnFxThread(); // 播放结束后的stop在进度线程调用
             logger.info("解码停止");
         }
     }
 
+    @Override
+    public void seek(java.time.Duration position, SeekMode mode) {
+        if (mediaPlayer == null) {
+            throw new RuntimeException("请先调用init初始化媒体");
+        }
+        long targetMs = Math.max(0, position.toMillis());
+        Duration total = media.getDuration();
+        if (total != null && !total.isUnknown() && !total.isIndefinite()) {
+            targetMs = Math.min(targetMs, (long) total.toMillis());
+        }
+
+        if (mode == SeekMode.FAST) {
+            // JavaFX未暴露关键帧信息：按配置的关键帧间隔取整，落在同一间隔内的重复跳转直接忽略
+            long step = Math.max(1, configService.getLong("player.seek.fastStepMs", 1000));
+            targetMs = (targetMs + step / 2) / step * step;
+            long currentMs = (long) mediaPlayer.getCurrentTime().toMillis();
+            if (Math.abs(currentMs - targetMs) < step / 2) {
+                return;
+            }
+        }
+
+        mediaPlayer.seek(Duration.millis(targetMs));
+        logger.debug("解码跳转：{}ms（{}）", targetMs, mode);
+    }
+
     @Override
     public long getMediaDuration() {
-        return media == null ? 0 : (long) media.getDuration().toSeconds();
+        if (media == null) {
+            return 0;
+        }
+        Duration duration = media.getDuration();
+        return duration == null || duration.isUnknown() || duration.isIndefinite() ? 0 : (long) duration.toMillis();
     }
 
     @Override
     public long getCurrentPosition() {
-        return mediaPlayer == null ? 0 : (long) mediaPlayer.getCurrentTime().toSeconds();
+        return mediaPlayer == null ? 0 : (long) mediaPlayer.getCurrentTime().toMillis();
+    }
+
+    @Override
+    public void setPlaybackListener(PlaybackListener listener) {
+        this.playbackListener = listener;
+    }
+
+    @Override
+    public void setNextMediaSupplier(Supplier<String> supplier) {
+        this.nextMediaSupplier = supplier;
     }
 
     @Override
     public Node getVideoRenderView() {
-        return mediaView; // 仅返回渲染节点，不暴露MediaView内部方法
+        // UI挂载时创建，之后切换媒体只更换其中的播放器；仅返回渲染节点，不暴露MediaView内部方法
+        if (mediaView == null) {
+            mediaView = new MediaView(mediaPlayer);
+        }
+        return mediaView;
     }
 
     // 内部方法：供AudioRenderer调用（不对外）
@@ -107,11 +428,18 @@ public class VideoDecoder implements CodecService {
         return mediaPlayer;
     }
 
+    // PlayerCore与模块容器都会关闭解码模块：只释放一次
     @Override
     public void close() {
-        if (mediaPlayer != null) {
-            mediaPlayer.dispose();
+        if (!closed.compareAndSet(false, true)) {
+            return;
         }
+        configService.unregisterChangeListener(configListener);
+        discardPrerollOnFxThread();
+        decoderPool.dispose(mediaPlayer);
+        mediaPlayer = null;
+        decoderPool.close();
+        executors.close();
         logger.info("解码资源已释放");
     }
 
@@ -1,23 +1,39 @@
 package com.multimediaplayer.codec.api;
 
-import javafx.scene.Node;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * 音视频解码渲染服务接口
+ * 不含任何JavaFX类型：渲染视图由VideoRenderService单独提供，无界面引擎可直接实现本接口
  */
 public interface CodecService extends AutoCloseable {
     // 初始化媒体资源
     void init(String mediaPath);
+    // 异步初始化媒体资源（不阻塞调用线程）；被新的加载取代时以CancellationException完成；默认实现同步执行，适用于初始化不涉及阻塞I/O的引擎
+    default CompletableFuture<Void> initAsync(String mediaPath) {
+        try {
+            init(mediaPath);
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
     // 启动解码+渲染
     void startDecode();
     // 暂停解码
     void pauseDecode();
     // 停止解码
     void stopDecode();
-    // 获取媒体总时长（秒）
+    // 跳转到指定位置（不改变播放/暂停状态）
+    void seek(Duration position, SeekMode mode);
+    // 获取媒体总时长（毫秒，未知时为0）
     long getMediaDuration();
-    // 获取当前播放位置（秒）
+    // 获取当前播放位置（毫秒）
     long getCurrentPosition();
-    // 获取视频渲染视图（供UI展示）
-    Node getVideoRenderView();
+    // 设置播放事件回调（位置变化、播放结束、异常），替代轮询
+    void setPlaybackListener(PlaybackListener listener);
+    // 设置下一首提供者（无缝播放：接近结尾时在后台线程调用，返回null表示没有下一首）；预载可能被丢弃，提供者不应推进播放位置
+    void setNextMediaSupplier(Supplier<String> supplier);
 }
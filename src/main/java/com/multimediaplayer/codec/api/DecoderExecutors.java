@@ -0,0 +1,103 @@
+package com.multimediaplayer.codec.api;
+
+import com.multimediaplayer.container.AsyncExecutors;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 解码引擎的后台执行器：媒体加载/预载的阻塞I/O执行器与原生资源释放线程
+ * - 单个解码引擎使用new DecoderExecutors()独占一组执行器，随引擎关闭
+ * - 多会话场景由会话管理器持有一组共享执行器，每个会话通过forSession()取得计数视图；视图的close不关闭共享线程
+ */
+public final class DecoderExecutors implements AutoCloseable {
+    private final ExecutorService ioPool;
+    private final ExecutorService releasePool;
+    private final boolean owner;
+    private final AtomicLong tasksSubmitted = new AtomicLong();
+    private final Executor ioExecutor;
+    private final Executor releaseExecutor;
+
+    public DecoderExecutors() {
+        this(AsyncExecutors.newBlockingExecutor("codec-io"), Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "decoder-release");
+            thread.setDaemon(true);
+            return thread;
+        }), true);
+    }
+
+    private DecoderExecutors(ExecutorService ioPool, ExecutorService releasePool, boolean owner) {
+        this.ioPool = ioPool;
+        this.releasePool = releasePool;
+        this.owner = owner;
+        this.ioExecutor = task -> {
+            tasksSubmitted.incrementAndGet();
+            ioPool.execute(task);
+        };
+        this.releaseExecutor = task -> {
+            tasksSubmitted.incrementAndGet();
+            releasePool.execute(task);
+        };
+    }
+
+    /**
+     * 共享同一组线程、单独计数的视图（关闭视图不影响共享线程）
+     */
+    public DecoderExecutors forSession() {
+        return new DecoderExecutors(ioPool, releasePool, false);
+    }
+
+    // 媒体文件校验、加载与预载
+    public Executor ioExecutor() {
+        return ioExecutor;
+    }
+
+    // 原生播放器释放（单线程，按提交顺序执行）
+    public Executor releaseExecutor() {
+        return releaseExecutor;
+    }
+
+    // 经本实例提交的后台任务数
+    public long tasksSubmitted() {
+        return tasksSubmitted.get();
+    }
+
+    // 占用的平台线程上限：释放线程1个，I/O执行器为虚拟线程时不占用平台线程
+    public int platformThreadCount() {
+        return 1 + (ioPool instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) ioPool).getMaximumPoolSize() : 0);
+    }
+
+    /**
+     * 等待此前提交的释放任务执行完毕（执行器已关闭时立即返回）
+     */
+    public void awaitReleases(long timeout, TimeUnit unit) {
+        try {
+            CompletableFuture.runAsync(() -> { }, releasePool).get(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException | RuntimeException e) {
+            // 超时或执行器已关闭：不再等待
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!owner) {
+            return;
+        }
+        releasePool.shutdown();
+        try {
+            releasePool.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ioPool.shutdownNow();
+    }
+}
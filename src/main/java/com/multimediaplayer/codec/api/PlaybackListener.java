@@ -0,0 +1,18 @@
+package com.multimediaplayer.codec.api;
+
+/**
+ * 解码播放事件回调（由解码模块在其内部线程触发，实现方需快速返回）
+ */
+public interface PlaybackListener {
+    // 播放位置变化（毫秒）
+    void onPositionChanged(long positionMs);
+
+    // 播放到达媒体末尾
+    void onEndOfMedia();
+
+    // 无缝切换到预载的下一首（取代本次的onEndOfMedia）
+    void onMediaSwitched(String mediaPath, long durationMs);
+
+    // 解码异常
+    void onError(String message);
+}
@@ -0,0 +1,11 @@
+package com.multimediaplayer.codec.api;
+
+/**
+ * 进度跳转模式
+ */
+public enum SeekMode {
+    // 精确跳转：定位到目标时间点（解码开销较大，用于松开进度条、点击跳转）
+    ACCURATE,
+    // 快速跳转：定位到目标附近的关键帧，容忍少量误差（用于拖动进度条预览）
+    FAST
+}
@@ -0,0 +1,21 @@
+package com.multimediaplayer.codec.api;
+
+import javafx.scene.image.Image;
+
+/**
+ * 缩略图服务接口：后台按固定间隔抽帧生成精灵图，带磁盘缓存；当前播放媒体的预览帧常驻内存
+ * 所有方法均不阻塞，尚未生成时返回null
+ */
+public interface ThumbnailService extends AutoCloseable {
+    // 后台生成（或从磁盘缓存加载）媒体的缩略图，重复请求只处理一次
+    void requestThumbnails(String mediaPath);
+    // 媒体封面缩略图；尚未就绪时返回null并在后台排队生成
+    Image getThumbnail(String mediaPath);
+    // 设置当前播放的媒体（优先生成），其精灵图保留在内存中供拖动进度条预览
+    void setPreviewMedia(String mediaPath);
+    // 当前媒体指定位置（毫秒）附近的预览帧，未就绪时返回null
+    Image getPreviewFrame(long positionMs);
+    // 停止后台生成并释放内存缓存
+    @Override
+    void close();
+}
@@ -0,0 +1,12 @@
+package com.multimediaplayer.codec.api;
+
+import javafx.scene.Node;
+
+/**
+ * 视频渲染视图服务：与CodecService分离，播放核心不依赖JavaFX图形类
+ * 无画面的解码引擎（如无界面引擎）返回null
+ */
+public interface VideoRenderService {
+    // 获取视频渲染视图（供UI展示，在FX线程调用）
+    Node getVideoRenderView();
+}
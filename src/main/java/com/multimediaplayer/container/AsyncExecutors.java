@@ -0,0 +1,57 @@
+package com.multimediaplayer.container;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 阻塞I/O执行器（各模块异步API的后台线程）：
+ * - 运行在Java 21+时使用虚拟线程（每任务一个虚拟线程，阻塞不占用平台线程）
+ * - Java 17上退化为有界平台线程池：线程数上限为CPU核数×2（至少4），空闲30秒回收
+ * 通过MethodHandle探测虚拟线程API，源码与字节码仍以Java 17为目标
+ */
+public final class AsyncExecutors {
+    private static final MethodHandle VIRTUAL_EXECUTOR_FACTORY = findVirtualExecutorFactory();
+    private static final int PLATFORM_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    private AsyncExecutors() {
+    }
+
+    /**
+     * 创建阻塞I/O执行器，由调用方在模块关闭时shutdown
+     * @param name 线程名前缀（仅平台线程池使用）
+     */
+    public static ExecutorService newBlockingExecutor(String name) {
+        if (VIRTUAL_EXECUTOR_FACTORY != null) {
+            try {
+                return (ExecutorService) VIRTUAL_EXECUTOR_FACTORY.invoke();
+            } catch (Throwable e) {
+                // 预览版JDK未开启虚拟线程等情况：使用平台线程池
+            }
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(PLATFORM_THREADS, PLATFORM_THREADS,
+                30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, name + "-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static MethodHandle findVirtualExecutorFactory() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.multimediaplayer.container;
+
+/**
+ * 类路径启动入口（java -jar / AppCDS）：主类不能直接继承Application，否则JavaFX在类路径上时拒绝启动
+ */
+public final class Launcher {
+
+    private Launcher() {
+    }
+
+    public static void main(String[] args) {
+        Main.main(args);
+    }
+}
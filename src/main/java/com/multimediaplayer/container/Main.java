@@ -1,32 +1,67 @@
 package com.multimediaplayer.container;
 
 import com.multimediaplayer.ui.api.PlayerUI;
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.stage.Stage;
 
+import java.util.List;
+
 /**
  * 应用入口：负责启动JavaFX、装配模块、展示UI
+ * 启动参数：
+ *   --startup-report       首帧显示后输出启动耗时报告
+ *   --exit-after-startup   首帧显示后立即退出（用于启动耗时测量、生成AppCDS归档）
  */
 public class Main extends Application {
     private ModuleAssembler moduleAssembler;
 
     @Override
     public void start(Stage primaryStage) {
-        try {
-            // 初始化模块装配器
-            moduleAssembler = new ModuleAssembler();
-            moduleAssembler.initModules();
-
-            // 获取UI模块，启动主界面
-            PlayerUI playerUI = moduleAssembler.getModule(PlayerUI.class);
-            playerUI.show(primaryStage);
-
-            moduleAssembler.getGlobalLogger().info("应用启动成功");
-        } catch (Exception e) {
-            moduleAssembler.getGlobalLogger().error("应用启动失败", e);
-            System.exit(1);
-        }
+        StartupTimeline.mark("fx.start");
+        List<String> args = getParameters().getRaw();
+        boolean startupReport = args.contains("--startup-report");
+        boolean exitAfterStartup = args.contains("--exit-after-startup");
+
+        // 模块在后台线程并行初始化，FX线程不被阻塞；完成后回到FX线程展示主界面
+        moduleAssembler = new ModuleAssembler();
+        moduleAssembler.startModules().whenComplete((ignored, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                moduleAssembler.getGlobalLogger().error("应用启动失败", error);
+                System.exit(1);
+            }
+            StartupTimeline.mark("modules.ready");
+            try {
+                // 获取UI模块，启动主界面
+                PlayerUI playerUI = moduleAssembler.getModule(PlayerUI.class);
+                playerUI.show(primaryStage);
+                StartupTimeline.mark("window.shown");
+                onFirstFrame(startupReport, exitAfterStartup);
+
+                moduleAssembler.getGlobalLogger().info("应用启动成功");
+            } catch (Exception e) {
+                moduleAssembler.getGlobalLogger().error("应用启动失败", e);
+                System.exit(1);
+            }
+        }));
+    }
 
+    // 窗口显示后的第一个渲染脉冲即为首帧
+    private void onFirstFrame(boolean startupReport, boolean exitAfterStartup) {
+        new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                stop();
+                StartupTimeline.mark("first.frame");
+                if (startupReport) {
+                    moduleAssembler.getGlobalLogger().info(StartupTimeline.report());
+                }
+                if (exitAfterStartup) {
+                    Platform.exit();
+                }
+            }
+        }.start();
     }
 
     @Override
@@ -38,6 +73,7 @@ public class Main extends Application {
     }
 
     public static void main(String[] args) {
+        StartupTimeline.mark("main");
         launch(args);
     }
 }
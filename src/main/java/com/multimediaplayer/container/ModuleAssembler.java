@@ -1,9 +1,16 @@
 package com.multimediaplayer.container;
 
 import com.multimediaplayer.codec.api.CodecService;
+import com.multimediaplayer.codec.api.DecoderExecutors;
+import com.multimediaplayer.codec.HeadlessDecoder;
 import com.multimediaplayer.codec.VideoDecoder;
+import com.multimediaplayer.codec.api.VideoRenderService;
+import com.multimediaplayer.codec.api.ThumbnailService;
+import com.multimediaplayer.codec.ThumbnailGenerator;
 import com.multimediaplayer.core.api.PlayerController;
 import com.multimediaplayer.core.PlayerCore;
+import com.multimediaplayer.core.PlayerSessionManager;
+import com.multimediaplayer.core.api.PlayerSessionService;
 import com.multimediaplayer.extension.api.ConfigService;
 import com.multimediaplayer.extension.ConfigManager;
 import com.multimediaplayer.media.api.MediaService;
@@ -11,80 +18,84 @@ import com.multimediaplayer.media.MediaLibrary;
 import com.multimediaplayer.subtitle.api.SubtitleService;
 import com.multimediaplayer.subtitle.SubtitleParser;
 import com.multimediaplayer.subtitle.api.I18nService;
+import com.multimediaplayer.subtitle.I18nManager;
 import com.multimediaplayer.ui.api.PlayerUI;
 import com.multimediaplayer.ui.PlayerUIController;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * 模块装配器：负责所有模块的初始化、依赖注入、生命周期管理
+ * 模块装配器：声明所有模块，由ModuleContainer负责依赖发现、并行/延迟初始化与逆序销毁
  */
 public class ModuleAssembler implements AppContext {
-    // 存储「模块接口 → 实现类实例」的映射
-    private final Map<Class<?>, Object> moduleMap = new HashMap<>();
     private final Logger globalLogger = LoggerFactory.getLogger("VideoPlayer_Global");
+    private final ModuleContainer container = new ModuleContainer(this, globalLogger);
 
-    /**
-     * 初始化所有模块
-     */
-    public void initModules() {
-        // 无依赖模块：extension（配置）、codec（解码）
-        ConfigService configService = new ConfigManager(this);
-        moduleMap.put(ConfigService.class, configService);
-
-        CodecService codecService = new VideoDecoder(this);
-        moduleMap.put(CodecService.class, codecService);
-
-        // 低依赖模块：core（仅依赖codec/extension）
-        PlayerController playerCore = new PlayerCore(this);
-        moduleMap.put(PlayerController.class, playerCore);
+    public ModuleAssembler() {
+        // 依赖无需声明：模块构造器中通过getModule获取的模块即为其依赖
+        container.register(ConfigService.class, ConfigManager::new, false);
+        container.register(CodecService.class, ModuleAssembler::createCodec, false);
+        container.register(PlayerController.class, PlayerCore::new, false);
+        container.register(MediaService.class, MediaLibrary::new, false);
+        container.register(I18nService.class, I18nManager::new, false);
+        container.register(SubtitleService.class, SubtitleParser::new, false);
+        container.register(PlayerUI.class, PlayerUIController::new, false);
+        // 延迟模块：第一次使用时才创建
+        container.register(ThumbnailService.class, ThumbnailGenerator::new, true);
+        container.register(VideoRenderService.class, ModuleAssembler::createRenderService, true);
+        container.register(PlayerSessionService.class,
+                context -> new PlayerSessionManager(context, ModuleAssembler::createSessionCodec), true);
+    }
 
-        // 中依赖模块：media（依赖codec）、subtitle（无强依赖）
-        MediaService mediaService = new MediaLibrary(this);
-        moduleMap.put(MediaService.class, mediaService);
+    // 解码引擎按配置选择：javafx（默认）或headless（无界面模拟引擎，用于压测与无图形环境）
+    private static CodecService createCodec(AppContext context) {
+        return isHeadless(context) ? new HeadlessDecoder(context) : new VideoDecoder(context);
+    }
 
-        SubtitleService subtitleService = new SubtitleParser(this);
-        moduleMap.put(SubtitleService.class, subtitleService);
+    // 多会话时每个会话各创建一个引擎，后台线程使用会话管理器的共享执行器（headless引擎本身已共享调度线程）
+    private static CodecService createSessionCodec(AppContext context, DecoderExecutors executors) {
+        return isHeadless(context) ? new HeadlessDecoder(context) : new VideoDecoder(context, executors);
+    }
 
-        I18nService i18nService = new SubtitleParser(this);
+    private static boolean isHeadless(AppContext context) {
+        return "headless".equalsIgnoreCase(context.getModule(ConfigService.class).getConfig("codec.engine", "javafx"));
+    }
 
-        moduleMap.put(I18nService.class, i18nService);
+    // 渲染视图由解码引擎实例提供；没有画面的引擎返回空视图
+    private static VideoRenderService createRenderService(AppContext context) {
+        CodecService codecService = context.getModule(CodecService.class);
+        return codecService instanceof VideoRenderService ? (VideoRenderService) codecService : () -> null;
+    }
 
-        // 高依赖模块：ui（依赖core/media/subtitle）
-        PlayerUI playerUI = new PlayerUIController(this);
-        moduleMap.put(PlayerUI.class, playerUI);
+    /**
+     * 初始化所有非延迟模块（阻塞直到完成）
+     */
+    public void initModules() {
+        startModules().join();
+    }
 
-        globalLogger.info("所有模块初始化完成，共加载{}个模块", moduleMap.size());
+    /**
+     * 在后台线程并行初始化所有非延迟模块，不阻塞调用方（FX线程）
+     * @return 初始化完成时结束的Future，任一模块失败则异常结束
+     */
+    public CompletableFuture<Void> startModules() {
+        return container.startEager();
     }
 
     /**
-     * 销毁所有模块（释放资源）
+     * 销毁所有模块（释放资源）：按依赖逆序关闭，使用者先于其依赖关闭
      */
     public void destroyModules() {
-        moduleMap.values().forEach(module -> {
-            if (module instanceof AutoCloseable) {
-                try {
-                    ((AutoCloseable) module).close();
-                } catch (Exception e) {
-                    globalLogger.error("模块销毁失败", e);
-                }
-            }
-        });
-        moduleMap.clear();
-        globalLogger.info("所有模块已销毁");
+        int count = container.createdCount();
+        container.closeAll();
+        globalLogger.info("所有模块已销毁，共{}个", count);
     }
 
-    // 实现AppContext接口：获取模块实例
+    // 实现AppContext接口：获取模块实例（延迟模块在此时创建）
     @Override
-    @SuppressWarnings("unchecked")
     public <T> T getModule(Class<T> moduleInterface) {
-        T module = (T) moduleMap.get(moduleInterface);
-        if (module == null) {
-            throw new RuntimeException("模块未初始化：" + moduleInterface.getName());
-        }
-        return module;
+        return container.get(moduleInterface);
     }
 
     // 实现AppContext接口：获取全局日志
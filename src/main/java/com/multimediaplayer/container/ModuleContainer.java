@@ -0,0 +1,246 @@
+package com.multimediaplayer.container;
+
+import org.slf4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 模块容器：按需创建模块，依赖关系在构造期间自动发现（模块构造器中调用getModule即为一条依赖边）
+ * - 非延迟模块在后台线程池中并行创建；某模块需要的依赖尚未开始创建时由当前线程直接创建，正在其他线程创建时等待
+ * - 延迟模块在第一次getModule时创建
+ * - 依赖环（同线程或跨线程）在等待前检测并报错，不会死锁
+ * - 模块按完成顺序记录（依赖总是先于使用者完成），销毁时逆序关闭
+ */
+final class ModuleContainer {
+    private final AppContext context;
+    private final Logger logger;
+    private final Map<Class<?>, Slot<?>> slots = new ConcurrentHashMap<>();
+    private final List<Class<?>> registrationOrder = Collections.synchronizedList(new ArrayList<>());
+    private final List<Slot<?>> createdOrder = new ArrayList<>(); // 完成顺序（拓扑序）
+    private final ThreadLocal<Deque<Slot<?>>> constructing = ThreadLocal.withInitial(ArrayDeque::new);
+    private final Map<Thread, Slot<?>> waiting = new ConcurrentHashMap<>(); // 线程 → 正在等待的模块（环检测用）
+
+    ModuleContainer(AppContext context, Logger logger) {
+        this.context = context;
+        this.logger = logger;
+    }
+
+    <T> void register(Class<T> moduleInterface, Function<AppContext, ? extends T> factory, boolean lazy) {
+        slots.put(moduleInterface, new Slot<>(moduleInterface, factory, lazy));
+        registrationOrder.add(moduleInterface);
+    }
+
+    <T> T get(Class<T> moduleInterface) {
+        Slot<?> slot = slots.get(moduleInterface);
+        if (slot == null) {
+            throw new RuntimeException("模块未初始化：" + moduleInterface.getName());
+        }
+        Slot<?> parent = constructing.get().peek();
+        if (parent == null) {
+            return moduleInterface.cast(slot.obtain());
+        }
+        // 在另一个模块的构造器中：记录依赖边，并把等待/创建依赖的时间从父模块的自身耗时中扣除
+        parent.dependencies.add(moduleInterface.getSimpleName());
+        long begin = System.nanoTime();
+        try {
+            return moduleInterface.cast(slot.obtain());
+        } finally {
+            parent.nestedNanos += System.nanoTime() - begin;
+        }
+    }
+
+    /**
+     * 在后台线程池中并行创建全部非延迟模块
+     * @return 全部创建完成（或任一失败）时结束的Future
+     */
+    CompletableFuture<Void> startEager() {
+        List<Slot<?>> eager = new ArrayList<>();
+        synchronized (registrationOrder) {
+            for (Class<?> moduleInterface : registrationOrder) {
+                Slot<?> slot = slots.get(moduleInterface);
+                if (!slot.lazy) {
+                    eager.add(slot);
+                }
+            }
+        }
+        int threads = Math.max(1, Math.min(eager.size(), Runtime.getRuntime().availableProcessors()));
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "module-init-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long begin = System.nanoTime();
+        CompletableFuture<?>[] futures = eager.stream()
+                .map(slot -> CompletableFuture.runAsync(slot::obtain, executor))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(futures).whenComplete((ignored, error) -> {
+            executor.shutdown();
+            if (error == null) {
+                long selfTotal;
+                synchronized (createdOrder) {
+                    selfTotal = createdOrder.stream().mapToLong(Slot::selfNanos).sum();
+                }
+                logger.info("模块并行初始化完成：{}个模块（{}个线程），总耗时{}ms，各模块自身耗时合计{}ms",
+                        eager.size(), threads, (System.nanoTime() - begin) / 1_000_000, selfTotal / 1_000_000);
+            }
+        });
+    }
+
+    int createdCount() {
+        synchronized (createdOrder) {
+            return createdOrder.size();
+        }
+    }
+
+    /**
+     * 按创建完成的逆序关闭模块（使用者先于其依赖关闭），之后容器不可再用
+     * 同一实例由多个模块返回时（如渲染视图即解码器本身）只关闭一次，且按其最早完成的模块定位，
+     * 避免后创建的别名模块把实例提前到使用者之前关闭
+     */
+    void closeAll() {
+        List<Slot<?>> closing = new ArrayList<>();
+        synchronized (createdOrder) {
+            Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Slot<?> slot : createdOrder) {
+                if (slot.instance instanceof AutoCloseable && seen.add(slot.instance)) {
+                    closing.add(slot);
+                }
+            }
+            createdOrder.clear();
+        }
+        slots.clear();
+        Collections.reverse(closing);
+        for (Slot<?> slot : closing) {
+            try {
+                ((AutoCloseable) slot.instance).close();
+            } catch (Exception e) {
+                logger.error("模块销毁失败：{}", slot.name, e);
+            }
+        }
+    }
+
+    private void onCreated(Slot<?> slot) {
+        synchronized (createdOrder) {
+            createdOrder.add(slot);
+        }
+        logger.info("模块初始化：{}，耗时{}ms（线程{}{}），依赖{}", slot.name, slot.selfNanos() / 1_000_000,
+                slot.threadName, slot.lazy ? "，延迟创建" : "", slot.dependencies);
+    }
+
+    // 等待前检测：沿「正在创建该模块的线程 → 该线程等待的模块」链回到当前线程即为依赖环
+    private void checkCycle(Slot<?> target) {
+        Thread current = Thread.currentThread();
+        List<String> path = new ArrayList<>();
+        path.add(target.name);
+        Slot<?> slot = target;
+        for (int hops = 0; slot != null && hops <= slots.size(); hops++) {
+            Thread owner = slot.owner;
+            if (owner == current) {
+                if (slot == target) { // 同一线程内的环：从当前构造栈还原路径
+                    path.clear();
+                    constructing.get().descendingIterator().forEachRemaining(constructed -> path.add(constructed.name));
+                    path.add(target.name);
+                }
+                throw new IllegalStateException("模块依赖存在环：" + String.join(" → ", path));
+            }
+            slot = owner == null ? null : waiting.get(owner);
+            if (slot != null) {
+                path.add(slot.name);
+            }
+        }
+    }
+
+    private enum State { NEW, CREATING, DONE, FAILED }
+
+    private final class Slot<T> {
+        final String name;
+        final Function<AppContext, ? extends T> factory;
+        final boolean lazy;
+        final Set<String> dependencies = Collections.synchronizedSet(new LinkedHashSet<>());
+        State state = State.NEW;
+        volatile Thread owner;
+        volatile T instance;
+        Throwable failure;
+        long elapsedNanos;
+        long nestedNanos; // 只由创建线程修改
+        String threadName;
+
+        Slot(Class<T> moduleInterface, Function<AppContext, ? extends T> factory, boolean lazy) {
+            this.name = moduleInterface.getSimpleName();
+            this.factory = factory;
+            this.lazy = lazy;
+        }
+
+        long selfNanos() {
+            return Math.max(0, elapsedNanos - nestedNanos);
+        }
+
+        T obtain() {
+            Thread current = Thread.currentThread();
+            synchronized (this) {
+                while (state != State.NEW) {
+                    if (state == State.DONE) {
+                        return instance;
+                    }
+                    if (state == State.FAILED) {
+                        throw new RuntimeException("模块初始化失败：" + name, failure);
+                    }
+                    checkCycle(this);
+                    waiting.put(current, this);
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        current.interrupt();
+                        throw new RuntimeException("等待模块初始化被中断：" + name, e);
+                    } finally {
+                        waiting.remove(current);
+                    }
+                }
+                state = State.CREATING;
+                owner = current;
+            }
+            Deque<Slot<?>> stack = constructing.get();
+            stack.push(this);
+            long begin = System.nanoTime();
+            T created;
+            try {
+                created = factory.apply(context);
+            } catch (RuntimeException | Error e) {
+                synchronized (this) {
+                    state = State.FAILED;
+                    failure = e;
+                    owner = null;
+                    notifyAll();
+                }
+                throw e;
+            } finally {
+                stack.pop();
+            }
+            synchronized (this) {
+                elapsedNanos = System.nanoTime() - begin;
+                threadName = current.getName();
+                instance = created;
+                state = State.DONE;
+                owner = null;
+                notifyAll();
+            }
+            onCreated(this);
+            return created;
+        }
+    }
+}
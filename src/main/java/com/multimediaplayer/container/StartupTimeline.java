@@ -0,0 +1,47 @@
+package com.multimediaplayer.container;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 启动耗时埋点：各阶段首次到达时记录时间戳（毫秒），报告中给出相对JVM启动的偏移与阶段间隔
+ * JVM启动时间取自ProcessHandle（不加载JMX），取不到时以类加载时刻为起点
+ * 阶段：main → fx.start → modules.ready → fxml.loaded → window.shown → first.frame
+ */
+public final class StartupTimeline {
+    private static final long ORIGIN_MS = ProcessHandle.current().info().startInstant()
+            .map(Instant::toEpochMilli).orElse(System.currentTimeMillis());
+    private static final Map<String, Long> MARKS = new LinkedHashMap<>();
+
+    private StartupTimeline() {
+    }
+
+    /**
+     * 记录阶段到达时刻（同一阶段只记录第一次）
+     * @param phase 阶段名
+     */
+    public static void mark(String phase) {
+        long now = System.currentTimeMillis();
+        synchronized (MARKS) {
+            MARKS.putIfAbsent(phase, now);
+        }
+    }
+
+    /**
+     * 生成启动报告（多行文本）
+     */
+    public static String report() {
+        StringBuilder report = new StringBuilder("启动耗时报告（相对JVM启动，单位ms）：");
+        long previous = ORIGIN_MS;
+        report.append(String.format("%n  %-16s %8d %+8d", "jvm.start", 0, 0));
+        synchronized (MARKS) {
+            for (Map.Entry<String, Long> mark : MARKS.entrySet()) {
+                report.append(String.format("%n  %-16s %8d %+8d", mark.getKey(), mark.getValue() - ORIGIN_MS,
+                        mark.getValue() - previous));
+                previous = mark.getValue();
+            }
+        }
+        return report.toString();
+    }
+}
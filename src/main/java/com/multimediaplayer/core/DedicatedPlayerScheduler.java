@@ -0,0 +1,40 @@
+package com.multimediaplayer.core;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 独立播放器的执行环境：专属的单线程调度器 + 专属事件投递线程池（单播放器场景）
+ */
+final class DedicatedPlayerScheduler implements PlayerScheduler {
+    // 进度调度线程：整个生命周期复用（stop后可再次play），仅在close时关闭
+    private final ScheduledExecutorService progressExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "player-progress");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService eventExecutor = PlayerEventBus.newDispatchExecutor();
+
+    @Override
+    public void execute(Runnable task) {
+        progressExecutor.execute(task);
+    }
+
+    @Override
+    public void schedule(Runnable task, long delay, TimeUnit unit) {
+        progressExecutor.schedule(task, delay, unit);
+    }
+
+    @Override
+    public ExecutorService eventExecutor() {
+        return eventExecutor;
+    }
+
+    @Override
+    public void close() {
+        progressExecutor.shutdownNow();
+        eventExecutor.shutdown();
+    }
+}
@@ -0,0 +1,106 @@
+package com.multimediaplayer.core;
+
+/**
+ * 媒体时钟：以解码模块上报的位置为锚点，按System.nanoTime与播放速率在两次上报之间插值
+ * 读取位置无需访问JavaFX；同一播放段内输出单调不减，只有跳转/停止会使位置回退
+ */
+public final class MediaClock {
+    // 解码上报落后于插值位置在此范围内时视为抖动，保持输出单调
+    private static final long JITTER_TOLERANCE_MS = 250;
+
+    // 锚点快照（不可变，通过volatile引用整体替换，读取无锁）
+    private static final class Anchor {
+        final long positionMs;
+        final long nanoTime;
+        final double rate;
+        final boolean running;
+
+        Anchor(long positionMs, long nanoTime, double rate, boolean running) {
+            this.positionMs = positionMs;
+            this.nanoTime = nanoTime;
+            this.rate = rate;
+            this.running = running;
+        }
+
+        long positionAt(long now) {
+            if (!running) {
+                return positionMs;
+            }
+            return positionMs + (long) ((now - nanoTime) / 1_000_000d * rate);
+        }
+    }
+
+    private volatile Anchor anchor = new Anchor(0, System.nanoTime(), 1.0, false);
+    private volatile long durationMs = 0;
+
+    /**
+     * 当前媒体位置（毫秒），不超过媒体时长
+     */
+    public long positionMs() {
+        long position = anchor.positionAt(System.nanoTime());
+        long duration = durationMs;
+        return duration > 0 ? Math.min(position, duration) : position;
+    }
+
+    public long durationMs() {
+        return durationMs;
+    }
+
+    public double rate() {
+        return anchor.rate;
+    }
+
+    public boolean isRunning() {
+        return anchor.running;
+    }
+
+    void setDuration(long durationMs) {
+        this.durationMs = Math.max(0, durationMs);
+    }
+
+    /**
+     * 解码模块上报位置：重新锚定；轻微落后于插值结果时保持当前输出，避免进度条来回跳动
+     */
+    synchronized void update(long reportedMs) {
+        Anchor current = anchor;
+        long now = System.nanoTime();
+        long interpolated = current.positionAt(now);
+        long position = reportedMs;
+        if (current.running && reportedMs < interpolated && interpolated - reportedMs <= JITTER_TOLERANCE_MS) {
+            position = interpolated;
+        }
+        anchor = new Anchor(position, now, current.rate, current.running);
+    }
+
+    // 开始/继续计时
+    synchronized void start() {
+        Anchor current = anchor;
+        if (!current.running) {
+            anchor = new Anchor(current.positionMs, System.nanoTime(), current.rate, true);
+        }
+    }
+
+    // 暂停：冻结在当前插值位置
+    synchronized void pause() {
+        Anchor current = anchor;
+        long now = System.nanoTime();
+        anchor = new Anchor(current.positionAt(now), now, current.rate, false);
+    }
+
+    // 跳转/换媒体：直接重置位置（允许回退），保持运行状态
+    synchronized void reset(long positionMs) {
+        Anchor current = anchor;
+        anchor = new Anchor(Math.max(0, positionMs), System.nanoTime(), current.rate, current.running);
+    }
+
+    // 停止：归零并停止计时
+    synchronized void stop() {
+        anchor = new Anchor(0, System.nanoTime(), anchor.rate, false);
+    }
+
+    synchronized void setRate(double rate) {
+        Anchor current = anchor;
+        long now = System.nanoTime();
+        anchor = new Anchor(current.positionAt(now), now, rate > 0 ? rate : 1.0, current.running);
+    }
+}
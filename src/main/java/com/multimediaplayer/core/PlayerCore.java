@@ -4,39 +4,87 @@ import com.multimediaplayer.container.AppContext;
 import com.multimediaplayer.core.api.PlayState;
 import com.multimediaplayer.core.api.PlayerController;
 import com.multimediaplayer.codec.api.CodecService;
+import com.multimediaplayer.codec.api.PlaybackListener;
+import com.multimediaplayer.codec.api.SeekMode;
+import com.multimediaplayer.extension.api.ConfigService;
 import org.slf4j.Logger;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * 播放核心实现：管理状态机、协调解码模块、发布事件
  * 内部逻辑完全封装，对外仅暴露PlayerController接口
+ * 跳转、进度发布等后台任务与事件投递由PlayerScheduler执行：单播放器使用专属线程，多会话时共享线程与时间轮
  */
 public class PlayerCore implements PlayerController, AutoCloseable {
     private final AppContext appContext;
     private final Logger logger;
     private final CodecService codecService;
 
-    // 内部私有状态
-    private PlayState currentState = PlayState.READY;
-    private final List<Consumer<PlayState>> stateListeners = new ArrayList<>();
-    private final List<Consumer<Long>> progressListeners = new ArrayList<>();
-    private final ScheduledExecutorService progressExecutor = Executors.newSingleThreadScheduledExecutor();
+    // 媒体时钟：在解码上报之间插值，查询位置无需访问解码模块
+    private final MediaClock mediaClock = new MediaClock();
+
+    // 内部私有状态（状态机通过CAS迁移，任意线程可见）
+    private final AtomicReference<PlayState> currentState = new AtomicReference<>(PlayState.READY);
+    private final PlayerEventBus<PlayState> stateEvents;
+    private final PlayerEventBus<Long> progressEvents;
+    private final PlayerEventBus<String> mediaChangeEvents;
+    // 后台任务执行环境：整个生命周期复用（stop后可再次play），仅在close时关闭
+    private final PlayerScheduler scheduler;
+
+    // 进度节流：解码模块每帧上报位置，按最大频率合并后仅在位置变化时发布
+    private final long progressIntervalNanos;
+    private final ConfigService configService;
+    private final BiConsumer<String, String> speedListener = this::onSpeedChanged;
+    private volatile double playbackRate;
+    private final AtomicBoolean progressFlushScheduled = new AtomicBoolean(false);
+    private volatile long lastProgressPublishNanos = 0;
+    private volatile long lastPublishedPosition = -1;
+
+    // 跳转合并：只保留最新的目标位置，同一时刻最多一个跳转在执行
+    private final AtomicReference<SeekRequest> pendingSeek = new AtomicReference<>();
+    private final AtomicBoolean seekInFlight = new AtomicBoolean(false);
 
     public PlayerCore(AppContext appContext) {
+        this(appContext, new DedicatedPlayerScheduler());
+    }
+
+    // 会话管理器使用：由调用方提供（共享的）执行环境，关闭时随播放核心一起关闭
+    PlayerCore(AppContext appContext, PlayerScheduler scheduler) {
         this.appContext = appContext;
         this.logger = appContext.getGlobalLogger();
+        this.scheduler = scheduler;
         this.codecService = appContext.getModule(CodecService.class);
+        this.stateEvents = new PlayerEventBus<>(logger, "状态", false, scheduler.eventExecutor());
+        this.progressEvents = new PlayerEventBus<>(logger, "进度", true, scheduler.eventExecutor());
+        this.mediaChangeEvents = new PlayerEventBus<>(logger, "媒体切换", false, scheduler.eventExecutor());
+
+        this.configService = appContext.getModule(ConfigService.class);
+        int maxUpdatesPerSecond = Math.max(1, configService.getInt("player.progress.maxUpdatesPerSecond", 10));
+        this.progressIntervalNanos = TimeUnit.SECONDS.toNanos(1) / maxUpdatesPerSecond;
+        this.playbackRate = configService.getDouble("player.speed", 1.0);
+        this.codecService.setPlaybackListener(new CodecEventHandler());
+        configService.registerChangeListener("player.speed", speedListener);
+    }
+
+    // 播放速度热更新：解码模块自行应用到播放器，这里同步媒体时钟的插值速率
+    private void onSpeedChanged(String key, String value) {
+        playbackRate = configService.getDouble(key, 1.0);
+        mediaClock.setRate(playbackRate);
     }
 
     @Override
     public void play(String mediaPath) {
         // 状态校验：异常状态禁止播放
-        if (currentState == PlayState.ERROR) {
+        if (currentState.get() == PlayState.ERROR) {
             logger.warn("当前为异常状态，无法播放");
             return;
         }
@@ -44,38 +92,69 @@ public class PlayerCore implements PlayerController, AutoCloseable {
         try {
             // 协调解码模块初始化
             codecService.init(mediaPath); // 可能抛出Exception
-            codecService.startDecode();   // 可能抛出Exception
-
-            // 更新状态+通知监听器
-            this.currentState = PlayState.PLAYING;
-            notifyStateChanged();
-
-            // 启动进度更新任务（内部线程）
-            startProgressTask();
-            logger.info("开始播放：{}", mediaPath);
+            startPlayback(mediaPath);
         } catch (Exception e) {
             // 捕获所有异常，更新为错误状态
-            this.currentState = PlayState.ERROR;
-            notifyStateChanged();
+            transitionTo(PlayState.ERROR);
             logger.error("播放失败", e);
         }
     }
 
+    @Override
+    public CompletableFuture<Void> playAsync(String mediaPath) {
+        if (currentState.get() == PlayState.ERROR) {
+            logger.warn("当前为异常状态，无法播放");
+            return CompletableFuture.completedFuture(null);
+        }
+        // 解码模块在后台加载媒体，完成后在其回调线程（JavaFX引擎为FX线程）开始播放
+        return codecService.initAsync(mediaPath)
+                .thenRun(() -> startPlayback(mediaPath))
+                .whenComplete((ignored, error) -> {
+                    if (error == null) {
+                        return;
+                    }
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (cause instanceof CancellationException) {
+                        // 被新的播放请求取代：不启动播放，也不进入异常状态
+                        logger.info("播放请求已被取代：{}", mediaPath);
+                        return;
+                    }
+                    transitionTo(PlayState.ERROR);
+                    logger.error("播放失败", cause);
+                });
+    }
+
+    // 内部方法：媒体初始化完成后启动解码与时钟
+    private void startPlayback(String mediaPath) {
+        codecService.startDecode();   // 可能抛出Exception
+        mediaClock.stop();
+        mediaClock.setRate(playbackRate);
+        mediaClock.setDuration(codecService.getMediaDuration()); // 媒体未就绪时为0，首次查询时补齐
+        mediaClock.start();
+
+        // 更新状态+通知监听器（进度由解码模块的位置事件驱动，无需轮询任务）
+        lastPublishedPosition = -1;
+        if (!transitionTo(PlayState.PLAYING)) {
+            return;
+        }
+        logger.info("开始播放：{}", mediaPath);
+    }
+
     @Override
     public void pause() {
-        if (currentState != PlayState.PLAYING) {
+        // 先原子地占有迁移，避免并发的pause/stop交错
+        if (!currentState.compareAndSet(PlayState.PLAYING, PlayState.PAUSED)) {
             logger.warn("非播放状态，无法暂停");
             return;
         }
+        stateEvents.publish(PlayState.PAUSED);
 
         try {
             codecService.pauseDecode(); // 可能抛出Exception
-            this.currentState = PlayState.PAUSED;
-            notifyStateChanged();
+            mediaClock.pause();
             logger.info("播放暂停");
         } catch (Exception e) {
-            this.currentState = PlayState.ERROR;
-            notifyStateChanged();
+            transitionTo(PlayState.ERROR);
             logger.error("暂停失败", e);
         }
     }
@@ -84,124 +163,238 @@ public class PlayerCore implements PlayerController, AutoCloseable {
     public void stop() {
         try {
             codecService.stopDecode(); // 可能抛出Exception
-            this.currentState = PlayState.STOPPED;
-            notifyStateChanged();
-            progressExecutor.shutdownNow();
+            mediaClock.stop();
+            transitionTo(PlayState.STOPPED);
             logger.info("播放停止");
         } catch (Exception e) {
-            this.currentState = PlayState.ERROR;
-            notifyStateChanged();
+            transitionTo(PlayState.ERROR);
             logger.error("停止失败", e);
         }
     }
 
     @Override
-    public void seek(long seconds) {
-        if (currentState == PlayState.STOPPED || currentState == PlayState.READY) {
+    public void seek(long positionMs) {
+        seek(positionMs, SeekMode.ACCURATE);
+    }
+
+    @Override
+    public void seek(long positionMs, SeekMode mode) {
+        PlayState state = currentState.get();
+        if (state != PlayState.PLAYING && state != PlayState.PAUSED) {
             logger.warn("非播放/暂停状态，无法跳转进度");
             return;
         }
 
+        // 拖动进度条会连续触发大量跳转：覆盖未执行的旧目标，仅在空闲时投递执行任务
+        long target = Math.max(0, positionMs);
+        pendingSeek.set(new SeekRequest(target, mode));
+        mediaClock.reset(target); // 进度立即反映拖动位置，解码完成后由位置事件校准
+        if (seekInFlight.compareAndSet(false, true)) {
+            submitSeekDrain();
+        }
+    }
+
+    private void submitSeekDrain() {
         try {
-            // 协调解码模块跳转进度（内部逻辑）
-            codecService.stopDecode(); // 可能抛出Exception
-            // 此处简化，实际需调用解码模块的进度跳转（如codecService.seek(seconds)）
-            this.currentState = PlayState.PAUSED;
-            notifyStateChanged();
-            logger.info("进度跳转到：{}秒", seconds);
+            scheduler.execute(this::drainSeeks);
         } catch (Exception e) {
-            this.currentState = PlayState.ERROR;
-            notifyStateChanged();
+            seekInFlight.set(false);
+            logger.error("进度跳转任务提交失败", e);
+        }
+    }
+
+    // 内部方法：依次执行最新的跳转请求（播放/暂停状态保持不变）
+    private void drainSeeks() {
+        try {
+            SeekRequest request;
+            while ((request = pendingSeek.getAndSet(null)) != null) {
+                codecService.seek(Duration.ofMillis(request.positionMs), request.mode); // 可能抛出Exception
+                logger.info("进度跳转到：{}ms", request.positionMs);
+            }
+        } catch (Exception e) {
+            transitionTo(PlayState.ERROR);
             logger.error("进度跳转失败", e);
+        } finally {
+            seekInFlight.set(false);
+            // 释放标记与新请求到达之间存在竞态，补偿检查一次
+            if (pendingSeek.get() != null && seekInFlight.compareAndSet(false, true)) {
+                submitSeekDrain();
+            }
         }
     }
 
-    // 内部方法：发布状态变更事件
-    private void notifyStateChanged() {
-        for (Consumer<PlayState> listener : stateListeners) {
-            try {
-                listener.accept(currentState);
-            } catch (Exception e) {
-                logger.error("状态监听器回调失败", e);
+    /**
+     * 内部方法：按迁移规则CAS更新状态，状态实际变化时异步发布事件
+     * @return 迁移后是否处于目标状态
+     */
+    private boolean transitionTo(PlayState target) {
+        while (true) {
+            PlayState current = currentState.get();
+            if (current == target) {
+                return true;
+            }
+            if (!current.canTransitionTo(target)) {
+                logger.warn("非法状态迁移：{} -> {}", current, target);
+                return false;
+            }
+            if (currentState.compareAndSet(current, target)) {
+                stateEvents.publish(target);
+                return true;
             }
         }
     }
 
-    // 内部方法：定时更新播放进度
-    private void startProgressTask() {
-        progressExecutor.scheduleAtFixedRate(() -> {
-            if (currentState == PlayState.PLAYING) {
-                try {
-                    long currentPos = codecService.getCurrentPosition(); // 可能抛出Exception
-                    long mediaDuration = codecService.getMediaDuration(); // 可能抛出Exception
+    // 内部方法：节流发布进度（首个事件立即发布，区间内的后续事件合并为一次尾部发布）
+    private void onPositionChanged(long positionMs) {
+        if (pendingSeek.get() == null && !seekInFlight.get()) {
+            mediaClock.update(positionMs); // 跳转过程中的旧位置事件不参与校准
+        }
+        if (!progressFlushScheduled.compareAndSet(false, true)) {
+            return; // 已有待执行的发布任务，它会读取最新位置
+        }
+        long delay = lastProgressPublishNanos + progressIntervalNanos - System.nanoTime();
+        try {
+            if (delay <= 0) {
+                scheduler.execute(this::flushProgress);
+            } else {
+                scheduler.schedule(this::flushProgress, delay, TimeUnit.NANOSECONDS);
+            }
+        } catch (Exception e) {
+            progressFlushScheduled.set(false); // 已关闭
+        }
+    }
 
-                    // 通知所有进度监听器
-                    for (Consumer<Long> listener : progressListeners) {
-                        try {
-                            listener.accept(currentPos);
-                        } catch (Exception e) {
-                            logger.error("进度监听器回调失败", e);
-                        }
-                    }
+    private void flushProgress() {
+        progressFlushScheduled.set(false);
+        lastProgressPublishNanos = System.nanoTime();
+        long position = mediaClock.positionMs();
+        if (position != lastPublishedPosition) {
+            lastPublishedPosition = position;
+            progressEvents.publish(position);
+        }
+    }
 
-                    // 播放完成判断
-                    if (currentPos >= mediaDuration) {
-                        stop();
-                    }
-                } catch (Exception e) {
-                    this.currentState = PlayState.ERROR;
-                    notifyStateChanged();
-                    logger.error("进度更新失败", e);
-                    progressExecutor.shutdownNow(); // 停止进度任务
-                }
+    // 解码模块事件处理：在解码线程回调，只做轻量转发
+    private final class CodecEventHandler implements PlaybackListener {
+        @Override
+        public void onPositionChanged(long positionMs) {
+            PlayerCore.this.onPositionChanged(positionMs);
+        }
+
+        @Override
+        public void onEndOfMedia() {
+            // 播放结束：刷新最终进度后停止（在进度线程执行，避免阻塞解码线程）
+            mediaClock.pause();
+            mediaClock.update(getMediaDuration());
+            try {
+                scheduler.execute(() -> {
+                    flushProgress();
+                    stop();
+                });
+            } catch (Exception e) {
+                logger.warn("播放结束事件处理失败：{}", e.getMessage());
             }
-        }, 0, 100, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void onMediaSwitched(String mediaPath, long durationMs) {
+            // 无缝切换：解码模块已开始播放下一首，状态保持PLAYING，仅重置时钟
+            mediaClock.stop();
+            mediaClock.setDuration(durationMs);
+            mediaClock.start();
+            lastPublishedPosition = -1;
+            mediaChangeEvents.publish(mediaPath);
+            logger.info("无缝切换播放：{}", mediaPath);
+        }
+
+        @Override
+        public void onError(String message) {
+            transitionTo(PlayState.ERROR);
+        }
+    }
+
+    @Override
+    public void setNextMediaSupplier(Supplier<String> supplier) {
+        codecService.setNextMediaSupplier(supplier);
+    }
+
+    @Override
+    public void registerMediaChangeListener(Consumer<String> listener) {
+        mediaChangeEvents.subscribe(listener);
     }
 
     // 实现监听器注册（仅暴露注册入口，不暴露列表）
     @Override
     public void registerStateListener(Consumer<PlayState> listener) {
-        if (listener != null && !stateListeners.contains(listener)) {
-            stateListeners.add(listener);
-        }
+        stateEvents.subscribe(listener);
     }
 
     @Override
     public void registerProgressListener(Consumer<Long> listener) {
-        if (listener != null && !progressListeners.contains(listener)) {
-            progressListeners.add(listener);
-        }
+        progressEvents.subscribe(listener);
+    }
+
+    @Override
+    public void unregisterStateListener(Consumer<PlayState> listener) {
+        stateEvents.unsubscribe(listener);
+    }
+
+    @Override
+    public void unregisterProgressListener(Consumer<Long> listener) {
+        progressEvents.unsubscribe(listener);
     }
 
     // 状态查询方法
     @Override
     public PlayState getCurrentState() {
-        return currentState;
+        return currentState.get();
     }
 
     @Override
     public long getCurrentPosition() {
-        try {
-            return codecService.getCurrentPosition(); // 捕获可能的异常
-        } catch (Exception e) {
-            logger.error("获取当前进度失败", e);
-            return 0L;
-        }
+        return mediaClock.positionMs();
     }
 
     @Override
     public long getMediaDuration() {
+        long duration = mediaClock.durationMs();
+        if (duration > 0) {
+            return duration;
+        }
         try {
-            return codecService.getMediaDuration(); // 捕获可能的异常
+            // 媒体就绪前时长未知：查询一次解码模块，得到有效值后缓存到时钟
+            duration = codecService.getMediaDuration(); // 捕获可能的异常
+            mediaClock.setDuration(duration);
+            return duration;
         } catch (Exception e) {
             logger.error("获取媒体时长失败", e);
             return 0L;
         }
     }
 
+    // 媒体时钟（供同模块内的会话管理、性能测试读取）
+    MediaClock getMediaClock() {
+        return mediaClock;
+    }
+
+    // 跳转请求（不可变，便于原子替换）
+    private static final class SeekRequest {
+        private final long positionMs;
+        private final SeekMode mode;
+
+        private SeekRequest(long positionMs, SeekMode mode) {
+            this.positionMs = positionMs;
+            this.mode = mode;
+        }
+    }
+
     @Override
     public void close() {
-        progressExecutor.shutdownNow();
+        configService.unregisterChangeListener(speedListener);
+        scheduler.close();
+        stateEvents.close();
+        progressEvents.close();
+        mediaChangeEvents.close();
         try {
             codecService.close(); // 捕获关闭时的异常
         } catch (Exception e) {
@@ -0,0 +1,165 @@
+package com.multimediaplayer.core;
+
+import org.slf4j.Logger;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * 播放器事件总线：写时复制的监听器注册表 + 异步分发
+ * 每个监听器拥有独立的串行投递队列，慢监听器只会拖慢自己，不影响发布线程和其他监听器；
+ * 状态事件按顺序逐条投递，进度事件只保留最新值（慢监听器自动跳过过期进度）
+ */
+final class PlayerEventBus<T> implements AutoCloseable {
+    private final Logger logger;
+    private final String name;
+    private final boolean conflate;
+    private final ExecutorService dispatchExecutor;
+    private final CopyOnWriteArrayList<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param name 事件名称（用于日志）
+     * @param conflate 是否合并事件（true：仅投递最新值）
+     * @param dispatchExecutor 投递线程池（可与其他总线共享）
+     */
+    PlayerEventBus(Logger logger, String name, boolean conflate, ExecutorService dispatchExecutor) {
+        this.logger = logger;
+        this.name = name;
+        this.conflate = conflate;
+        this.dispatchExecutor = dispatchExecutor;
+    }
+
+    // 默认投递线程池：每个监听器最多占用一个线程，空闲线程60秒后回收
+    static ExecutorService newDispatchExecutor() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        return Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "player-event-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // 固定大小的投递线程池（多会话共享）：线程数不随监听器数量增长，慢监听器会占用其中一个线程直到返回
+    static ExecutorService newDispatchExecutor(int threads) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread thread = new Thread(r, "player-session-event-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    boolean subscribe(Consumer<T> listener) {
+        return listener != null && subscribers.addIfAbsent(new Subscriber(listener));
+    }
+
+    boolean unsubscribe(Consumer<T> listener) {
+        if (listener == null) {
+            return false;
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.listener == listener && subscribers.remove(subscriber)) {
+                subscriber.active = false; // 投递线程据此丢弃剩余事件
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean hasSubscribers() {
+        return !subscribers.isEmpty();
+    }
+
+    // 发布事件（不阻塞，可在任意线程调用）
+    void publish(T event) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.active = false;
+        }
+        subscribers.clear();
+    }
+
+    // 单个监听器的投递队列
+    private final class Subscriber {
+        private final Consumer<T> listener;
+        private final Queue<T> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicReference<T> latest = new AtomicReference<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+        private volatile boolean active = true; // 注销后置为false，投递时O(1)检查，无需遍历注册表
+
+        private Subscriber(Consumer<T> listener) {
+            this.listener = listener;
+        }
+
+        void offer(T event) {
+            if (conflate) {
+                latest.set(event);
+            } else {
+                pending.add(event);
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    dispatchExecutor.execute(this::drain);
+                } catch (Exception e) {
+                    scheduled.set(false);
+                    logger.warn("{}事件投递失败：{}", name, e.getMessage());
+                }
+            }
+        }
+
+        private void drain() {
+            T event;
+            while ((event = next()) != null) {
+                if (!active) {
+                    break; // 已注销：丢弃剩余事件
+                }
+                try {
+                    listener.accept(event);
+                } catch (Exception e) {
+                    logger.error("{}监听器回调失败", name, e);
+                }
+            }
+            scheduled.set(false);
+            // 释放标记与新事件到达之间存在竞态，补偿检查一次
+            if (hasPending()) {
+                schedule();
+            }
+        }
+
+        private T next() {
+            return conflate ? latest.getAndSet(null) : pending.poll();
+        }
+
+        private boolean hasPending() {
+            return conflate ? latest.get() != null : !pending.isEmpty();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof PlayerEventBus.Subscriber
+                    && ((PlayerEventBus<?>.Subscriber) other).listener == listener;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(listener);
+        }
+    }
+}
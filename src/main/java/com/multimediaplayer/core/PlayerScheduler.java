@@ -0,0 +1,23 @@
+package com.multimediaplayer.core;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 播放核心的执行环境：串行任务（跳转、进度发布、结束处理）、延迟任务与事件投递
+ * 独立播放器使用专属线程（DedicatedPlayerScheduler）；多会话共享同一组线程与时间轮（SharedPlayerScheduler）
+ * 关闭后提交任务抛出RejectedExecutionException
+ */
+interface PlayerScheduler extends AutoCloseable {
+    // 串行执行：任务按提交顺序逐个执行，互不重叠
+    void execute(Runnable task);
+
+    // 延迟后串行执行
+    void schedule(Runnable task, long delay, TimeUnit unit);
+
+    // 事件投递线程池（PlayerEventBus使用）
+    ExecutorService eventExecutor();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,280 @@
+package com.multimediaplayer.core;
+
+import com.multimediaplayer.codec.api.CodecService;
+import com.multimediaplayer.codec.api.DecoderExecutors;
+import com.multimediaplayer.codec.api.SeekMode;
+import com.multimediaplayer.container.AppContext;
+import com.multimediaplayer.core.api.PlayState;
+import com.multimediaplayer.core.api.PlayerSession;
+import com.multimediaplayer.core.api.PlayerSessionService;
+import com.multimediaplayer.core.api.PlayerSessionStats;
+import com.multimediaplayer.extension.api.ConfigService;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * 多会话管理实现：每个会话拥有独立的解码引擎与PlayerCore，后台任务运行在共享调度器的串行通道上
+ * 解码引擎由装配器提供的工厂创建（与主播放器使用同一配置选择引擎），会话内getModule(CodecService)返回会话自己的引擎
+ * 解码引擎的后台I/O与原生资源释放同样使用管理器持有的一组共享执行器（DecoderExecutors），不随会话数增加线程
+ * 配置：player.session.workerThreads（共享工作线程数）、player.session.eventThreads（共享事件投递线程数）、
+ *      player.session.timerTickMs（时间轮刻度）、player.session.max（会话上限）
+ */
+public class PlayerSessionManager implements PlayerSessionService {
+    private final AppContext appContext;
+    private final Logger logger;
+    private final BiFunction<AppContext, DecoderExecutors, CodecService> codecFactory;
+    private final int maxSessions;
+    private final SharedPlayerScheduler sharedScheduler;
+    private final DecoderExecutors decoderExecutors = new DecoderExecutors();
+    private final Map<String, ManagedSession> sessions = new LinkedHashMap<>(); // 由this锁保护
+    private boolean closed = false;
+
+    public PlayerSessionManager(AppContext appContext, BiFunction<AppContext, DecoderExecutors, CodecService> codecFactory) {
+        this.appContext = appContext;
+        this.logger = appContext.getGlobalLogger();
+        this.codecFactory = codecFactory;
+        ConfigService configService = appContext.getModule(ConfigService.class);
+        int defaultThreads = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+        this.maxSessions = Math.max(1, configService.getInt("player.session.max", 256));
+        this.sharedScheduler = new SharedPlayerScheduler(logger,
+                configService.getInt("player.session.workerThreads", defaultThreads),
+                configService.getInt("player.session.eventThreads", defaultThreads),
+                configService.getLong("player.session.timerTickMs", 10));
+    }
+
+    @Override
+    public PlayerSession openSession(String name) {
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("会话管理器已关闭");
+            }
+            if (sessions.containsKey(name)) {
+                throw new IllegalStateException("会话已存在：" + name);
+            }
+            if (sessions.size() >= maxSessions) {
+                throw new IllegalStateException("会话数已达上限：" + maxSessions);
+            }
+            // 先占位，防止同名会话并发创建；解码引擎创建失败时移除
+            sessions.put(name, null);
+        }
+        ManagedSession session;
+        try {
+            session = new ManagedSession(name);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                sessions.remove(name);
+            }
+            throw e;
+        }
+        boolean registered;
+        synchronized (this) {
+            registered = !closed;
+            if (registered) {
+                sessions.put(name, session);
+            } else {
+                sessions.remove(name); // 创建期间管理器已关闭：close未见到本会话，由这里释放
+            }
+        }
+        if (!registered) {
+            session.close();
+            throw new IllegalStateException("会话管理器已关闭");
+        }
+        logger.info("播放会话已创建：{}", name);
+        return session;
+    }
+
+    @Override
+    public synchronized PlayerSession getSession(String name) {
+        return sessions.get(name);
+    }
+
+    @Override
+    public synchronized List<PlayerSession> getSessions() {
+        List<PlayerSession> result = new ArrayList<>(sessions.size());
+        for (ManagedSession session : sessions.values()) {
+            if (session != null) {
+                result.add(session);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int getSharedThreadCount() {
+        return sharedScheduler.threadCount() + decoderExecutors.platformThreadCount();
+    }
+
+    private synchronized void remove(ManagedSession session) {
+        sessions.remove(session.name, session);
+    }
+
+    @Override
+    public void close() {
+        List<PlayerSession> closing;
+        synchronized (this) {
+            closed = true;
+            closing = getSessions();
+        }
+        closing.forEach(PlayerSession::close);
+        sharedScheduler.close();
+        decoderExecutors.close();
+        logger.info("会话管理器已关闭，共释放{}个会话", closing.size());
+    }
+
+    // 会话上下文：解码引擎替换为会话自己的实例，其余模块与全局共享
+    private final class SessionContext implements AppContext {
+        private final CodecService codecService;
+
+        private SessionContext(CodecService codecService) {
+            this.codecService = codecService;
+        }
+
+        @Override
+        public <T> T getModule(Class<T> moduleInterface) {
+            if (moduleInterface == CodecService.class) {
+                return moduleInterface.cast(codecService);
+            }
+            return appContext.getModule(moduleInterface);
+        }
+
+        @Override
+        public Logger getGlobalLogger() {
+            return logger;
+        }
+    }
+
+    // 会话实现：播放控制委托给会话内的PlayerCore
+    private final class ManagedSession implements PlayerSession {
+        private final String name;
+        private final long openedAt = System.currentTimeMillis();
+        private final SharedPlayerScheduler.Session scheduler;
+        private final DecoderExecutors executors; // 共享解码执行器上的计数视图
+        private final PlayerCore core;
+        private volatile boolean sessionClosed = false;
+
+        private ManagedSession(String name) {
+            this.name = name;
+            this.scheduler = sharedScheduler.newSession();
+            this.executors = decoderExecutors.forSession();
+            CodecService codecService = codecFactory.apply(appContext, executors);
+            try {
+                this.core = new PlayerCore(new SessionContext(codecService), scheduler);
+            } catch (RuntimeException e) {
+                // 播放核心创建失败：会话自己的解码引擎与串行通道不会再被关闭，在这里释放
+                try {
+                    codecService.close();
+                } catch (Exception closeError) {
+                    e.addSuppressed(closeError);
+                }
+                scheduler.close();
+                throw e;
+            }
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public PlayerSessionStats getStats() {
+            return new PlayerSessionStats(name, core.getCurrentState(), core.getCurrentPosition(),
+                    System.currentTimeMillis() - openedAt, scheduler.tasksExecuted(), scheduler.taskNanos(),
+                    scheduler.timersScheduled(), executors.tasksSubmitted());
+        }
+
+        @Override
+        public void play(String mediaPath) {
+            core.play(mediaPath);
+        }
+
+        @Override
+        public CompletableFuture<Void> playAsync(String mediaPath) {
+            return core.playAsync(mediaPath);
+        }
+
+        @Override
+        public void pause() {
+            core.pause();
+        }
+
+        @Override
+        public void stop() {
+            core.stop();
+        }
+
+        @Override
+        public void seek(long positionMs) {
+            core.seek(positionMs);
+        }
+
+        @Override
+        public void seek(long positionMs, SeekMode mode) {
+            core.seek(positionMs, mode);
+        }
+
+        @Override
+        public void setNextMediaSupplier(Supplier<String> supplier) {
+            core.setNextMediaSupplier(supplier);
+        }
+
+        @Override
+        public void registerMediaChangeListener(Consumer<String> listener) {
+            core.registerMediaChangeListener(listener);
+        }
+
+        @Override
+        public void registerStateListener(Consumer<PlayState> listener) {
+            core.registerStateListener(listener);
+        }
+
+        @Override
+        public void registerProgressListener(Consumer<Long> listener) {
+            core.registerProgressListener(listener);
+        }
+
+        @Override
+        public void unregisterStateListener(Consumer<PlayState> listener) {
+            core.unregisterStateListener(listener);
+        }
+
+        @Override
+        public void unregisterProgressListener(Consumer<Long> listener) {
+            core.unregisterProgressListener(listener);
+        }
+
+        @Override
+        public PlayState getCurrentState() {
+            return core.getCurrentState();
+        }
+
+        @Override
+        public long getCurrentPosition() {
+            return core.getCurrentPosition();
+        }
+
+        @Override
+        public long getMediaDuration() {
+            return core.getMediaDuration();
+        }
+
+        @Override
+        public void close() {
+            if (sessionClosed) {
+                return;
+            }
+            sessionClosed = true;
+            core.close(); // 同时关闭会话的串行通道与解码引擎
+            remove(this);
+            logger.info("播放会话已关闭：{}", getStats());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.multimediaplayer.core;
+
+import org.slf4j.Logger;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 多会话共享的执行环境：固定大小的工作线程池 + 一个时间轮 + 固定大小的事件投递线程池
+ * 每个会话拿到一个串行通道（Session），保持与专属单线程调度器相同的执行语义，但不占用专属线程；
+ * 通道每次最多连续执行BATCH个任务后让出线程，繁忙会话不会饿死其他会话
+ */
+final class SharedPlayerScheduler implements AutoCloseable {
+    private static final int BATCH = 32;
+
+    private final Logger logger;
+    private final int workerThreads;
+    private final int eventThreads;
+    private final ExecutorService workers;
+    private final ExecutorService eventExecutor;
+    private final TimerWheel timerWheel;
+
+    SharedPlayerScheduler(Logger logger, int workerThreads, int eventThreads, long timerTickMs) {
+        this.logger = logger;
+        this.workerThreads = Math.max(1, workerThreads);
+        this.eventThreads = Math.max(1, eventThreads);
+        this.eventExecutor = PlayerEventBus.newDispatchExecutor(this.eventThreads);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.workerThreads, r -> {
+            Thread thread = new Thread(r, "player-session-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timerWheel = new TimerWheel(logger, "player-timer-wheel", timerTickMs, 512);
+    }
+
+    // 为一个会话创建串行通道
+    Session newSession() {
+        return new Session();
+    }
+
+    // 共享的平台线程数：工作线程 + 事件投递线程 + 时间轮线程
+    int threadCount() {
+        return workerThreads + eventThreads + 1;
+    }
+
+    @Override
+    public void close() {
+        timerWheel.close();
+        workers.shutdownNow();
+        eventExecutor.shutdownNow();
+    }
+
+    /**
+     * 会话的串行通道：任务排队后由共享线程依次执行，并统计该会话占用的资源
+     */
+    final class Session implements PlayerScheduler {
+        private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+        private final LongAdder tasksExecuted = new LongAdder();
+        private final LongAdder taskNanos = new LongAdder();
+        private final LongAdder timersScheduled = new LongAdder();
+        private volatile boolean closed = false;
+
+        @Override
+        public void execute(Runnable task) {
+            if (closed) {
+                throw new RejectedExecutionException("会话已关闭");
+            }
+            queue.add(task);
+            scheduleDrain();
+        }
+
+        @Override
+        public void schedule(Runnable task, long delay, TimeUnit unit) {
+            if (closed) {
+                throw new RejectedExecutionException("会话已关闭");
+            }
+            timersScheduled.increment();
+            timerWheel.schedule(() -> {
+                if (!closed) {
+                    queue.add(task);
+                    scheduleDrain();
+                }
+            }, delay, unit);
+        }
+
+        @Override
+        public ExecutorService eventExecutor() {
+            return eventExecutor;
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    workers.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false); // 调度器已关闭
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Runnable task;
+                for (int i = 0; i < BATCH && !closed && (task = queue.poll()) != null; i++) {
+                    long begin = System.nanoTime();
+                    try {
+                        task.run();
+                    } catch (Exception e) {
+                        logger.error("会话任务执行失败", e);
+                    } finally {
+                        taskNanos.add(System.nanoTime() - begin);
+                        tasksExecuted.increment();
+                    }
+                }
+            } finally {
+                draining.set(false);
+                // 批次用完或释放标记与新任务到达之间的竞态：还有任务则重新排队
+                if (!closed && !queue.isEmpty()) {
+                    scheduleDrain();
+                }
+            }
+        }
+
+        long tasksExecuted() {
+            return tasksExecuted.sum();
+        }
+
+        long taskNanos() {
+            return taskNanos.sum();
+        }
+
+        long timersScheduled() {
+            return timersScheduled.sum();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            queue.clear();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.multimediaplayer.core;
+
+import org.slf4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 哈希时间轮：单个线程按固定刻度推进，大量短延迟定时任务（各会话的进度发布）的调度开销为O(1)
+ * - 新任务先进入无锁的待加入队列，由时间轮线程放入对应槽位（槽位只被时间轮线程访问，无需加锁）
+ * - 延迟超过一圈的任务记录剩余圈数；到期精度为一个刻度，任务不会早于截止时间执行
+ * - 到期任务直接在时间轮线程执行，必须快速返回（通常只是把真正的工作提交给其他执行器）
+ */
+final class TimerWheel implements AutoCloseable {
+    private final Logger logger;
+    private final long tickNanos;
+    private final long startNanos = System.nanoTime();
+    private final Queue<Timeout>[] buckets;
+    private final int mask;
+    private final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private volatile boolean closed = false;
+    private long tick = 0; // 只由时间轮线程访问
+
+    @SuppressWarnings("unchecked")
+    TimerWheel(Logger logger, String threadName, long tickMs, int wheelSize) {
+        this.logger = logger;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickMs));
+        int size = Integer.highestOneBit(Math.max(16, wheelSize) - 1) << 1; // 向上取整为2的幂
+        this.buckets = (Queue<Timeout>[]) new Queue<?>[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.mask = size - 1;
+        this.worker = new Thread(this::run, threadName);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 延迟执行任务（不早于delay之后，精度为一个刻度）
+     */
+    void schedule(Runnable task, long delay, TimeUnit unit) {
+        if (closed) {
+            throw new RejectedExecutionException("时间轮已关闭");
+        }
+        Timeout timeout = new Timeout(task, System.nanoTime() + Math.max(0, unit.toNanos(delay)));
+        incoming.add(timeout);
+    }
+
+    private void run() {
+        while (!closed) {
+            long deadline = startNanos + tick * tickNanos;
+            long waitNanos;
+            while ((waitNanos = deadline - System.nanoTime()) > 0 && !closed) {
+                LockSupport.parkNanos(this, waitNanos);
+            }
+            transferIncoming();
+            expire(buckets[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    // 待加入任务放入槽位：到期刻度向上取整，已过期的任务放入当前刻度立即执行
+    private void transferIncoming() {
+        Timeout timeout;
+        while ((timeout = incoming.poll()) != null) {
+            long dueTick = Math.max(tick, (timeout.deadlineNanos - startNanos + tickNanos - 1) / tickNanos);
+            timeout.remainingRounds = (dueTick - tick) / buckets.length;
+            buckets[(int) (dueTick & mask)].add(timeout);
+        }
+    }
+
+    private void expire(Queue<Timeout> bucket) {
+        for (Iterator<Timeout> iterator = bucket.iterator(); iterator.hasNext(); ) {
+            Timeout timeout = iterator.next();
+            if (timeout.remainingRounds <= 0) {
+                iterator.remove();
+                try {
+                    timeout.task.run();
+                } catch (Exception e) {
+                    logger.error("定时任务执行失败", e);
+                }
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(worker);
+    }
+
+    // 定时任务
+    private static final class Timeout {
+        private final Runnable task;
+        private final long deadlineNanos;
+        private long remainingRounds; // 只由时间轮线程访问
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+}
@@ -15,4 +15,27 @@ public enum PlayState {
     public String getDesc() {
         return desc;
     }
+
+    /**
+     * 状态迁移校验：ERROR任何时候都可进入，ERROR只能通过停止恢复
+     * @param target 目标状态
+     * @return 是否允许迁移
+     */
+    public boolean canTransitionTo(PlayState target) {
+        if (target == ERROR) {
+            return true;
+        }
+        switch (this) {
+            case READY:
+            case STOPPED:
+                return target == PLAYING || target == STOPPED;
+            case PLAYING:
+            case PAUSED:
+                return target == PLAYING || target == PAUSED || target == STOPPED;
+            case ERROR:
+                return target == STOPPED;
+            default:
+                return false;
+        }
+    }
 }
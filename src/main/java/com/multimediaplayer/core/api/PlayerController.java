@@ -1,6 +1,10 @@
 package com.multimediaplayer.core.api;
 
+import com.multimediaplayer.codec.api.SeekMode;
+
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * 播放控制对外接口：UI/其他模块仅通过此接口操作播放
@@ -8,15 +12,25 @@ import java.util.function.Consumer;
 public interface PlayerController {
     // 基础控制
     void play(String mediaPath);
+    // 异步播放：媒体加载不阻塞调用线程（UI线程应使用此方法），开始播放后完成；失败时进入ERROR状态并异常完成，被新的播放请求取代时以CancellationException完成且不改变状态
+    CompletableFuture<Void> playAsync(String mediaPath);
     void pause();
     void stop();
-    void seek(long seconds); // 进度跳转
+    void seek(long positionMs); // 进度跳转（毫秒，精确）
+    void seek(long positionMs, SeekMode mode); // 进度跳转（拖动进度条时使用FAST）
+
+    // 无缝播放：当前媒体接近结尾时向提供者预取下一首并预载（提供者不应推进播放位置，实际切换以媒体切换回调为准）
+    void setNextMediaSupplier(Supplier<String> supplier);
+    // 媒体切换监听（无缝切换到下一首时回调新的媒体路径）
+    void registerMediaChangeListener(Consumer<String> listener);
 
-    // 状态/进度监听
+    // 状态/进度监听（异步回调，不在调用线程执行）
     void registerStateListener(Consumer<PlayState> listener);
-    void registerProgressListener(Consumer<Long> listener);
+    void registerProgressListener(Consumer<Long> listener); // 回调参数为播放位置（毫秒）
+    void unregisterStateListener(Consumer<PlayState> listener);
+    void unregisterProgressListener(Consumer<Long> listener);
 
-    // 状态查询
+    // 状态查询（位置/时长单位：毫秒，位置由媒体时钟插值得到）
     PlayState getCurrentState();
     long getCurrentPosition();
     long getMediaDuration();
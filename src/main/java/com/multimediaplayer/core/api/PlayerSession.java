@@ -0,0 +1,17 @@
+package com.multimediaplayer.core.api;
+
+/**
+ * 播放会话：一个独立的播放器（自己的解码引擎、状态机与监听器），由PlayerSessionService创建
+ * 关闭后不可再用
+ */
+public interface PlayerSession extends PlayerController, AutoCloseable {
+    // 会话名称（在会话管理器内唯一）
+    String getName();
+
+    // 当前资源占用统计
+    PlayerSessionStats getStats();
+
+    // 关闭会话：停止播放、释放解码资源并从会话管理器移除
+    @Override
+    void close();
+}
@@ -0,0 +1,25 @@
+package com.multimediaplayer.core.api;
+
+import java.util.List;
+
+/**
+ * 多会话播放服务：同一JVM内运行多个相互隔离的播放器（如多屏拼接墙）
+ * 所有会话共享固定数量的调度线程、一个进度时间轮和一组解码后台执行器，会话数量增加不会按比例增加线程
+ */
+public interface PlayerSessionService extends AutoCloseable {
+    // 创建会话（名称重复或超过会话上限时抛出IllegalStateException）
+    PlayerSession openSession(String name);
+
+    // 按名称获取会话（不存在返回null）
+    PlayerSession getSession(String name);
+
+    // 当前所有会话（按创建顺序）
+    List<PlayerSession> getSessions();
+
+    // 所有会话共享的平台线程数（调度、事件投递、时间轮与解码后台线程；解码I/O为虚拟线程时不计入）
+    int getSharedThreadCount();
+
+    // 关闭全部会话并释放共享线程
+    @Override
+    void close();
+}
@@ -0,0 +1,70 @@
+package com.multimediaplayer.core.api;
+
+/**
+ * 会话资源占用统计（不可变快照）
+ */
+public final class PlayerSessionStats {
+    private final String name;
+    private final PlayState state;
+    private final long positionMs;
+    private final long uptimeMs;
+    private final long tasksExecuted;
+    private final long taskTimeNanos;
+    private final long timersScheduled;
+    private final long decoderTasks;
+
+    public PlayerSessionStats(String name, PlayState state, long positionMs, long uptimeMs,
+                              long tasksExecuted, long taskTimeNanos, long timersScheduled, long decoderTasks) {
+        this.name = name;
+        this.state = state;
+        this.positionMs = positionMs;
+        this.uptimeMs = uptimeMs;
+        this.tasksExecuted = tasksExecuted;
+        this.taskTimeNanos = taskTimeNanos;
+        this.timersScheduled = timersScheduled;
+        this.decoderTasks = decoderTasks;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public PlayState getState() {
+        return state;
+    }
+
+    public long getPositionMs() {
+        return positionMs;
+    }
+
+    // 会话创建至今的时长
+    public long getUptimeMs() {
+        return uptimeMs;
+    }
+
+    // 在共享线程上执行的后台任务数（跳转、进度发布、结束处理）
+    public long getTasksExecuted() {
+        return tasksExecuted;
+    }
+
+    // 后台任务占用共享线程的累计时间
+    public long getTaskTimeNanos() {
+        return taskTimeNanos;
+    }
+
+    // 通过时间轮安排的延迟任务数
+    public long getTimersScheduled() {
+        return timersScheduled;
+    }
+
+    // 解码引擎提交到共享I/O与释放线程的任务数（媒体加载、预载、原生资源释放）
+    public long getDecoderTasks() {
+        return decoderTasks;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s, 位置%dms, 运行%dms, 任务%d个/%dms, 定时%d个, 解码后台任务%d个]", name, state, positionMs,
+                uptimeMs, tasksExecuted, taskTimeNanos / 1_000_000, timersScheduled, decoderTasks);
+    }
+}
@@ -0,0 +1,74 @@
+package com.multimediaplayer.extension;
+
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+/**
+ * 配置文件监听：WatchService只能监听目录，注册配置文件所在目录并按文件名过滤
+ * 原子替换写入表现为ENTRY_CREATE，普通编辑器保存表现为ENTRY_MODIFY，两者都视为变化
+ */
+class ConfigFileWatcher implements AutoCloseable {
+    private final Logger logger;
+    private final Path fileName;
+    private final Runnable onChanged;
+    private final WatchService watchService;
+    private final Thread watchThread;
+
+    ConfigFileWatcher(Logger logger, Path file, Runnable onChanged) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        this.logger = logger;
+        this.fileName = absolute.getFileName();
+        this.onChanged = onChanged;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        absolute.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        this.watchThread = new Thread(this::processEvents, "config-watcher");
+        this.watchThread.setDaemon(true);
+        this.watchThread.start();
+    }
+
+    private void processEvents() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            boolean changed = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                // 事件溢出时无法确定是哪个文件，按已变化处理
+                changed |= event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context());
+            }
+            if (changed) {
+                try {
+                    onChanged.run();
+                } catch (Exception e) {
+                    logger.warn("处理配置文件变化失败", e);
+                }
+            }
+            if (!key.reset()) {
+                logger.warn("配置目录已不可访问，停止监听配置文件");
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.error("关闭配置文件监听失败", e);
+        }
+        watchThread.interrupt();
+    }
+}
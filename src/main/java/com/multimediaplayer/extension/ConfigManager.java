@@ -3,33 +3,99 @@ package com.multimediaplayer.extension;
 import com.multimediaplayer.container.AppContext;
 import com.multimediaplayer.extension.api.ConfigService;
 import org.slf4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 
 /**
- * 配置管理实现：封装Properties文件读写，对外仅暴露ConfigService接口
+ * 配置管理实现：并发安全的内存配置表 + 延迟批量写回
+ * - setConfig只更新内存并标记为脏，后台线程在一个合并窗口后统一写盘（循环设置多个key只写一次文件、只记一条日志）
+ * - 写盘先写临时文件再原子替换，进程中途退出不会损坏原配置文件
+ * - 每个值缓存最近一次的类型化解析结果，热点路径上的getInt/getDouble等不再重复解析字符串
+ * - 全局版本号在任一值变化时递增
+ * - 热加载：监听配置文件，外部修改后自动重新加载；只应用文件中相对上次读写真正变化的键，内存中尚未写盘的修改不会被旧值覆盖
+ *   文件中删除的键同样从内存移除（恢复默认值）并通知监听器
+ * - 变化通知：按键或前缀订阅，在独立的通知线程合并投递，setConfig/getXxx路径上只记录变化的键
  */
 public class ConfigManager implements ConfigService, AutoCloseable {
+    private static final long FLUSH_DELAY_MS = 500; // 写回合并窗口
+    private static final long NOTIFY_DELAY_MS = 50; // 变化通知合并窗口
+    private static final long RELOAD_DELAY_MS = 200; // 文件变化合并窗口（一次保存常触发多个事件）
+
     private final AppContext appContext;
     private final Logger logger;
-    private final Properties properties = new Properties();
-    private final Map<String, String> configMap = new HashMap<>();
-    private final File configFile = new File("player_config.properties");
+    private final Map<String, Entry> configMap = new ConcurrentHashMap<>();
+    private final File configFile;
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private volatile long savedVersion = 0; // 已写盘的版本
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "config-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // 变化通知与文件重新加载（与写盘线程分开，监听器执行缓慢不会推迟写盘）
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final Set<String> changedKeys = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean notifyScheduled = new AtomicBoolean(false);
+    private final AtomicBoolean reloadScheduled = new AtomicBoolean(false);
+    private final ScheduledExecutorService notifier = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "config-notify");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Map<String, String> fileSnapshot = new HashMap<>(); // 最近一次读/写时的文件内容（由this锁保护）
+    private ConfigFileWatcher fileWatcher;
 
     public ConfigManager(AppContext appContext) {
+        this(appContext, Paths.get("player_config.properties"));
+    }
+
+    // 指定配置文件路径（性能测试使用临时文件，避免写入工作目录的配置）
+    ConfigManager(AppContext appContext, Path configPath) {
         this.appContext = appContext;
         this.logger = appContext.getGlobalLogger();
+        this.configFile = configPath.toFile();
         // 初始化加载配置
         loadConfig();
+        if (getBoolean("config.watch.enabled", true)) {
+            try {
+                fileWatcher = new ConfigFileWatcher(logger, configFile.toPath(), this::scheduleReload);
+            } catch (Exception e) {
+                logger.warn("配置文件监听启动失败，修改配置文件后需重启生效：{}", e.getMessage());
+            }
+        }
     }
 
     @Override
     public String getConfig(String key, String defaultValue) {
-        return configMap.getOrDefault(key, defaultValue);
+        Entry entry = configMap.get(key);
+        return entry == null ? defaultValue : entry.value;
     }
 
     @Override
@@ -38,42 +104,363 @@ public class ConfigManager implements ConfigService, AutoCloseable {
             logger.warn("配置键/值不能为空");
             return;
         }
-        configMap.put(key, value);
-        logger.info("配置更新：{}={}", key, value);
+        if (put(key, value)) {
+            logger.debug("配置更新：{}={}", key, value);
+            scheduleFlush();
+        }
+    }
+
+    // 值有变化时替换条目并递增版本号
+    private boolean put(String key, String value) {
+        boolean[] changed = {false};
+        configMap.compute(key, (k, previous) -> {
+            if (previous != null && previous.value.equals(value)) {
+                return previous;
+            }
+            changed[0] = true;
+            return new Entry(value);
+        });
+        if (changed[0]) {
+            markChanged(key);
+        }
+        return changed[0];
+    }
+
+    // 移除仍等于expected的值（已被本地修改的值保留）
+    private boolean removeIfUnchanged(String key, String expected) {
+        boolean[] removed = {false};
+        configMap.computeIfPresent(key, (k, previous) -> {
+            if (!previous.value.equals(expected)) {
+                return previous;
+            }
+            removed[0] = true;
+            return null;
+        });
+        if (removed[0]) {
+            markChanged(key);
+        }
+        return removed[0];
+    }
+
+    private void markChanged(String key) {
+        version.incrementAndGet();
+        if (!subscriptions.isEmpty()) {
+            changedKeys.add(key);
+            scheduleNotify();
+        }
+    }
+
+    @Override
+    public void registerChangeListener(String keyOrPrefix, BiConsumer<String, String> listener) {
+        if (keyOrPrefix == null || listener == null) {
+            logger.warn("配置监听的键/监听器不能为空");
+            return;
+        }
+        subscriptions.add(new Subscription(keyOrPrefix, listener));
+    }
+
+    @Override
+    public void unregisterChangeListener(BiConsumer<String, String> listener) {
+        subscriptions.removeIf(subscription -> subscription.listener == listener);
+    }
+
+    // 第一个变化安排一次投递，窗口内的后续变化只记录键，投递时统一读取最新值
+    private void scheduleNotify() {
+        if (notifyScheduled.compareAndSet(false, true)) {
+            try {
+                notifier.schedule(this::deliverChanges, NOTIFY_DELAY_MS, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                notifyScheduled.set(false); // 已关闭
+            }
+        }
+    }
+
+    private void deliverChanges() {
+        notifyScheduled.set(false);
+        for (Iterator<String> keys = changedKeys.iterator(); keys.hasNext(); ) {
+            String key = keys.next();
+            keys.remove();
+            String value = getConfig(key, null);
+            for (Subscription subscription : subscriptions) {
+                if (subscription.matches(key)) {
+                    try {
+                        subscription.listener.accept(key, value);
+                    } catch (Exception e) {
+                        logger.error("配置变化监听执行失败：{}", key, e);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public int getInt(String key, int defaultValue) {
+        Entry entry = configMap.get(key);
+        if (entry == null) {
+            return defaultValue;
+        }
+        Object parsed = entry.parsed;
+        if (!(parsed instanceof Integer)) {
+            try {
+                entry.parsed = parsed = Integer.valueOf(entry.value.trim());
+            } catch (NumberFormatException e) {
+                return invalid(key, entry, defaultValue);
+            }
+        }
+        return (Integer) parsed;
+    }
+
+    @Override
+    public long getLong(String key, long defaultValue) {
+        Entry entry = configMap.get(key);
+        if (entry == null) {
+            return defaultValue;
+        }
+        Object parsed = entry.parsed;
+        if (!(parsed instanceof Long)) {
+            try {
+                entry.parsed = parsed = Long.valueOf(entry.value.trim());
+            } catch (NumberFormatException e) {
+                return invalid(key, entry, defaultValue);
+            }
+        }
+        return (Long) parsed;
     }
 
     @Override
-    public void saveConfig() {
-        properties.clear();
-        configMap.forEach(properties::setProperty);
-        try (FileOutputStream fos = new FileOutputStream(configFile)) {
-            properties.store(fos, "Video Player Configuration");
-            logger.info("配置已保存到：{}", configFile.getAbsolutePath());
+    public double getDouble(String key, double defaultValue) {
+        Entry entry = configMap.get(key);
+        if (entry == null) {
+            return defaultValue;
+        }
+        Object parsed = entry.parsed;
+        if (!(parsed instanceof Double)) {
+            try {
+                entry.parsed = parsed = Double.valueOf(entry.value.trim());
+            } catch (NumberFormatException e) {
+                return invalid(key, entry, defaultValue);
+            }
+        }
+        return (Double) parsed;
+    }
+
+    @Override
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Entry entry = configMap.get(key);
+        if (entry == null) {
+            return defaultValue;
+        }
+        Object parsed = entry.parsed;
+        if (!(parsed instanceof Boolean)) {
+            String value = entry.value.trim();
+            if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
+                entry.parsed = parsed = Boolean.valueOf(value);
+            } else {
+                return invalid(key, entry, defaultValue);
+            }
+        }
+        return (Boolean) parsed;
+    }
+
+    // 格式错误：每个值只警告一次，之后直接返回默认值
+    private <T> T invalid(String key, Entry entry, T defaultValue) {
+        if (!entry.warned) {
+            entry.warned = true;
+            logger.warn("配置值格式错误：{}={}，使用默认值{}", key, entry.value, defaultValue);
+        }
+        return defaultValue;
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    // 第一次变更时安排一次写回，窗口内的后续变更合并到同一次写盘
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            try {
+                writer.schedule(this::flush, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                flushScheduled.set(false); // 已关闭：由close中的同步保存处理
+            }
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        saveConfig();
+    }
+
+    // 在写盘线程执行：与延迟写回串行，不会出现两次写盘交错
+    @Override
+    public CompletableFuture<Void> saveConfigAsync() {
+        try {
+            return CompletableFuture.runAsync(this::saveConfig, writer);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e); // 已关闭
+        }
+    }
+
+    @Override
+    public synchronized void saveConfig() {
+        long snapshotVersion = version.get();
+        if (snapshotVersion == savedVersion && configFile.exists()) {
+            return;
+        }
+        Properties properties = new Properties();
+        configMap.forEach((key, entry) -> properties.setProperty(key, entry.value));
+        Path target = configFile.toPath().toAbsolutePath();
+        Path tempFile = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                properties.store(out, "Video Player Configuration");
+            }
+            try {
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            savedVersion = snapshotVersion;
+            fileSnapshot = toMap(properties);
+            logger.info("配置已保存到：{}（{}项）", target, properties.size());
         } catch (Exception e) {
             logger.error("保存配置失败", e);
+        } finally {
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException ignored) {
+                // 临时文件残留不影响下次保存
+            }
         }
     }
 
     @Override
-    public void loadConfig() {
+    public synchronized void loadConfig() {
         if (!configFile.exists()) {
             logger.info("配置文件不存在，使用默认配置");
             return;
         }
 
-        try (FileInputStream fis = new FileInputStream(configFile)) {
-            properties.load(fis);
-            properties.forEach((k, v) -> configMap.put((String) k, (String) v));
-            logger.info("配置加载成功，共{}项", configMap.size());
+        Properties properties = readFile();
+        if (properties == null) {
+            return;
+        }
+        long before = version.get();
+        int changed = 0;
+        for (String key : properties.stringPropertyNames()) {
+            if (put(key, properties.getProperty(key))) {
+                changed++;
+            }
+        }
+        // 与文件一致：本次加载产生的版本即已保存版本（文件中没有的内存值、加载期间的并发修改保持脏状态，等待写回）
+        if (configMap.size() == properties.size() && version.get() == before + changed) {
+            savedVersion = before + changed;
+        }
+        fileSnapshot = toMap(properties);
+        logger.info("配置加载成功，共{}项（变化{}项）", properties.size(), changed);
+    }
+
+    // 文件变化事件合并后在通知线程重新加载
+    private void scheduleReload() {
+        if (reloadScheduled.compareAndSet(false, true)) {
+            try {
+                notifier.schedule(this::reload, RELOAD_DELAY_MS, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                reloadScheduled.set(false); // 已关闭
+            }
+        }
+    }
+
+    // 三方合并：只应用文件中相对上次快照变化的键（自身写盘触发的事件不产生变化）
+    private synchronized void reload() {
+        reloadScheduled.set(false);
+        if (!configFile.exists()) {
+            return;
+        }
+        Properties properties = readFile();
+        if (properties == null) {
+            return;
+        }
+        // setConfig不持有本锁：记录加载前的版本，只有版本恰好前进了本次加载的变化数时才视为与文件一致
+        long before = version.get();
+        boolean clean = savedVersion == before;
+        int changed = 0;
+        for (String key : properties.stringPropertyNames()) {
+            String value = properties.getProperty(key);
+            if (!value.equals(fileSnapshot.get(key)) && put(key, value)) {
+                changed++;
+            }
+        }
+        for (Map.Entry<String, String> previous : fileSnapshot.entrySet()) {
+            if (!properties.containsKey(previous.getKey()) && removeIfUnchanged(previous.getKey(), previous.getValue())) {
+                changed++;
+            }
+        }
+        fileSnapshot = toMap(properties);
+        if (clean && version.get() == before + changed) {
+            savedVersion = before + changed; // 内存与文件一致，无需写回；期间有其他修改则保持脏状态等待写回
+        }
+        if (changed > 0) {
+            logger.info("配置文件已修改，重新加载{}项", changed);
+        }
+    }
+
+    private Properties readFile() {
+        Properties properties = new Properties();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(configFile.toPath()))) {
+            properties.load(in);
+            return properties;
         } catch (Exception e) {
             logger.error("加载配置失败", e);
+            return null;
         }
     }
 
+    private static Map<String, String> toMap(Properties properties) {
+        Map<String, String> map = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            map.put(key, properties.getProperty(key));
+        }
+        return map;
+    }
+
     @Override
     public void close() {
-        // 销毁前自动保存配置
+        // 销毁前停止监听与通知，取消延迟写回，同步保存未写盘的变更
+        if (fileWatcher != null) {
+            fileWatcher.close();
+        }
+        notifier.shutdownNow();
+        subscriptions.clear();
+        writer.shutdownNow();
         saveConfig();
         logger.info("配置管理器已释放");
     }
+
+    // 订阅：以"."结尾按前缀匹配，否则精确匹配
+    private static final class Subscription {
+        final String keyOrPrefix;
+        final BiConsumer<String, String> listener;
+
+        Subscription(String keyOrPrefix, BiConsumer<String, String> listener) {
+            this.keyOrPrefix = keyOrPrefix;
+            this.listener = listener;
+        }
+
+        boolean matches(String key) {
+            return keyOrPrefix.endsWith(".") ? key.startsWith(keyOrPrefix) : key.equals(keyOrPrefix);
+        }
+    }
+
+    // 配置条目：字符串值不可变，类型化解析结果按需缓存
+    private static final class Entry {
+        final String value;
+        volatile Object parsed;
+        volatile boolean warned;
+
+        Entry(String value) {
+            this.value = value;
+        }
+    }
 }
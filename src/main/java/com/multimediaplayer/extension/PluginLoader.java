@@ -1,17 +1,20 @@
 package com.multimediaplayer.extension;
 
 import com.multimediaplayer.container.AppContext;
+import com.multimediaplayer.container.AsyncExecutors;
 import org.slf4j.Logger;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.net.URLClassLoader;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
 
 /**
  * 插件加载器：动态加载外部JAR插件，封装类加载逻辑
@@ -20,13 +23,22 @@ public class PluginLoader implements AutoCloseable {
     private final AppContext appContext;
     private final Logger logger;
     private final Map<String, URLClassLoader> pluginClassLoaders = new ConcurrentHashMap<>();
-    private final List<String> loadedPlugins = new ArrayList<>();
+    private final List<String> loadedPlugins = new CopyOnWriteArrayList<>(); // 异步加载可能并发写入
+    private final ExecutorService ioExecutor = AsyncExecutors.newBlockingExecutor("plugin-loader");
 
     public PluginLoader(AppContext appContext) {
         this.appContext = appContext;
         this.logger = appContext.getGlobalLogger();
     }
 
+    /**
+     * 异步加载插件：读取JAR、类加载与实例化在后台线程执行
+     * @return 插件实例的Future（加载失败时结果为null，与loadPlugin一致）
+     */
+    public <T> CompletableFuture<T> loadPluginAsync(String pluginPath, Class<T> pluginInterface) {
+        return CompletableFuture.supplyAsync(() -> loadPlugin(pluginPath, pluginInterface), ioExecutor);
+    }
+
     /**
      * 加载插件（对外暴露的核心方法）
      * @param pluginPath 插件JAR路径
@@ -87,6 +99,7 @@ public class PluginLoader implements AutoCloseable {
 
     @Override
     public void close() {
+        ioExecutor.shutdownNow();
         pluginClassLoaders.values().forEach(classLoader -> {
             try {
                 classLoader.close();
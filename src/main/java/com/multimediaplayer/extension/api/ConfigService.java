@@ -1,6 +1,7 @@
 package com.multimediaplayer.extension.api;
 
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
 
 /**
  * 配置服务接口：对外提供配置读写能力
@@ -12,6 +13,59 @@ public interface ConfigService {
     void setConfig(String key, String value);
     // 持久化配置到本地文件
     void saveConfig();
+    // 异步持久化（写盘不阻塞调用线程）；默认实现同步执行，适用于不落盘的实现
+    default CompletableFuture<Void> saveConfigAsync() {
+        try {
+            saveConfig();
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
     // 加载本地配置
     void loadConfig();
+
+    // 注册配置变化监听：keyOrPrefix以"."结尾时匹配该前缀下的所有键，否则只匹配该键
+    // 回调参数为（键，最新值；键被删除时为null），在后台通知线程执行；短时间内同一键的多次变化合并为一次回调
+    void registerChangeListener(String keyOrPrefix, BiConsumer<String, String> listener);
+    // 注销配置变化监听（同一监听器的所有注册都会移除）
+    void unregisterChangeListener(BiConsumer<String, String> listener);
+
+    // 类型化读取：值缺失或格式错误时返回默认值（实现可缓存解析结果，避免热点路径重复解析字符串）
+    default int getInt(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(getConfig(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    default long getLong(String key, long defaultValue) {
+        try {
+            return Long.parseLong(getConfig(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    default double getDouble(String key, double defaultValue) {
+        try {
+            return Double.parseDouble(getConfig(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    default boolean getBoolean(String key, boolean defaultValue) {
+        String value = getConfig(key, String.valueOf(defaultValue)).trim();
+        if ("true".equalsIgnoreCase(value)) {
+            return true;
+        }
+        return !"false".equalsIgnoreCase(value) && defaultValue;
+    }
+
+    // 配置版本号：任一配置值变化时递增（可据此判断自行缓存的派生值是否过期）
+    default long getVersion() {
+        return 0;
+    }
 }
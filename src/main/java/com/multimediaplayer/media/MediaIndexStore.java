@@ -0,0 +1,106 @@
+package com.multimediaplayer.media;
+
+import com.multimediaplayer.media.api.MediaInfo;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 媒体库索引文件：紧凑二进制格式，保存已扫描目录与每个媒体的大小/修改时间/元数据
+ * 格式：魔数、版本、目录列表、条目数、条目（路径哈希 + 路径 + 字段）
+ * 写入时先写临时文件再原子替换，进程中途退出不会损坏旧索引
+ */
+final class MediaIndexStore {
+    private static final int MAGIC = 0x4D4D5049; // "MMPI"
+    private static final int VERSION = 1;
+
+    private final Path indexFile;
+
+    MediaIndexStore(Path indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    Path getIndexFile() {
+        return indexFile;
+    }
+
+    /**
+     * 读取索引到目标集合；文件不存在时不做任何处理
+     * @return 读取的条目数
+     */
+    int load(Set<String> roots, Map<String, MediaInfo> entries) throws IOException {
+        if (!Files.isRegularFile(indexFile)) {
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile), 64 * 1024))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("索引文件格式不匹配：" + indexFile);
+            }
+            int rootCount = in.readInt();
+            for (int i = 0; i < rootCount; i++) {
+                roots.add(in.readUTF());
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long pathHash = in.readLong();
+                String path = in.readUTF();
+                if (pathHash != hash(path)) {
+                    throw new IOException("索引文件已损坏：" + indexFile);
+                }
+                entries.put(path, new MediaInfo(path, in.readLong(), in.readLong(), in.readUTF(), in.readLong(),
+                        in.readUTF(), in.readUTF(), in.readInt(), in.readInt()));
+            }
+            return count;
+        }
+    }
+
+    void save(Collection<String> roots, List<MediaInfo> entries) throws IOException {
+        Path tempFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile), 64 * 1024))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(roots.size());
+                for (String root : roots) {
+                    out.writeUTF(root);
+                }
+                out.writeInt(entries.size());
+                for (MediaInfo info : entries) {
+                    out.writeLong(hash(info.getPath()));
+                    out.writeUTF(info.getPath());
+                    out.writeLong(info.getSize());
+                    out.writeLong(info.getLastModified());
+                    out.writeUTF(info.getContainer());
+                    out.writeLong(info.getDurationMs());
+                    out.writeUTF(info.getVideoCodec());
+                    out.writeUTF(info.getAudioCodec());
+                    out.writeInt(info.getWidth());
+                    out.writeInt(info.getHeight());
+                }
+            }
+            Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    // 路径的64位FNV-1a哈希，用于校验条目完整性
+    static long hash(String path) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < path.length(); i++) {
+            hash ^= path.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -1,65 +1,296 @@
 package com.multimediaplayer.media;
 
 import com.multimediaplayer.container.AppContext;
-import com.multimediaplayer.codec.api.CodecService;
+import com.multimediaplayer.container.AsyncExecutors;
+import com.multimediaplayer.extension.api.ConfigService;
+import com.multimediaplayer.media.api.MediaInfo;
+import com.multimediaplayer.media.api.MediaScanListener;
+import com.multimediaplayer.media.api.MediaSearchQuery;
+import com.multimediaplayer.media.api.MediaSearchResult;
 import com.multimediaplayer.media.api.MediaService;
+import com.multimediaplayer.media.api.RepeatMode;
 import org.slf4j.Logger;
 import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 媒体库实现：扫描本地媒体、解析元数据
- * 依赖CodecService接口，不直接耦合解码实现
+ * 元数据由MediaScanner探测容器头部得到，不依赖解码模块；
+ * 扫描结果持久化到索引文件，重新扫描时仅探测大小/修改时间发生变化的文件
+ * 目录监听带来的变化合并后延迟写回索引，进程异常退出时不会丢失两次扫描之间的变化
  */
-public class MediaLibrary implements MediaService {
+public class MediaLibrary implements MediaService, AutoCloseable {
+    private static final long INDEX_SAVE_DELAY_MS = 2000; // 监听变化的索引写回合并窗口（批量复制文件时只写一次）
+
     private final AppContext appContext;
     private final Logger logger;
-    private final CodecService codecService;
     private final PlaylistManager playlistManager; // 关联播放列表
+    private final MediaScanner mediaScanner;
+    private final MediaIndexStore indexStore;
+    private final PlayHistoryStore playHistory;
+    private final boolean watchEnabled;
+    private final ExecutorService ioExecutor = AsyncExecutors.newBlockingExecutor("media-io"); // 异步API的后台线程
 
     // 内部私有成员
-    private final List<String> mediaLibrary = new ArrayList<>();
-    private final List<String> playHistory = new ArrayList<>();
+    private final Map<String, MediaInfo> mediaLibrary = new ConcurrentHashMap<>(); // 路径→元数据
+    private final MediaSearchIndex searchIndex = new MediaSearchIndex();               // 全文/分面检索索引
+    private final Set<String> libraryRoots = ConcurrentHashMap.newKeySet();     // 已扫描的根目录
+    private volatile boolean indexLoaded = false;
+    private final AtomicBoolean indexDirty = new AtomicBoolean(false);
+    private final AtomicBoolean indexSaveScheduled = new AtomicBoolean(false);
+    private final ScheduledExecutorService indexWriter = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "media-index-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private MediaLibraryWatcher libraryWatcher;
 
     public MediaLibrary(AppContext appContext) {
         this.appContext = appContext;
         this.logger = appContext.getGlobalLogger();
-        this.codecService = appContext.getModule(CodecService.class);
         this.playlistManager = new PlaylistManager(this); // 初始化播放列表
+
+        ConfigService configService = appContext.getModule(ConfigService.class);
+        int defaultThreads = Math.min(4, Runtime.getRuntime().availableProcessors());
+        int scanThreads = configService.getInt("media.scan.threads", defaultThreads);
+        this.mediaScanner = new MediaScanner(logger, Math.max(1, scanThreads));
+        this.indexStore = new MediaIndexStore(Paths.get(configService.getConfig("media.library.index", "media_library.idx")));
+        this.watchEnabled = configService.getBoolean("media.library.watch", false);
+        this.playHistory = new PlayHistoryStore(logger,
+                Paths.get(configService.getConfig("media.history.file", "play_history.log")),
+                configService.getInt("media.history.capacity", 1000),
+                configService.getLong("media.history.flushSeconds", 5));
     }
 
     @Override
     public List<String> scanLocalMedia(String folderPath) {
-        File folder = new File(folderPath);
-        if (!folder.isDirectory()) {
+        List<String> scannedMedia = new ArrayList<>();
+        scanLocalMedia(folderPath, null).forEach(info -> scannedMedia.add(info.getPath()));
+        return scannedMedia;
+    }
+
+    @Override
+    public List<MediaInfo> scanLocalMedia(String folderPath, MediaScanListener listener) {
+        Path folder = Paths.get(folderPath).toAbsolutePath().normalize();
+        if (!Files.isDirectory(folder)) {
             logger.warn("扫描路径不是文件夹：{}", folderPath);
             return new ArrayList<>();
         }
+        ensureIndexLoaded();
 
-        List<String> scannedMedia = new ArrayList<>();
-        // 内部遍历：仅支持指定格式
-        File[] files = folder.listFiles((dir, name) -> {
-            String lowerName = name.toLowerCase();
-            return lowerName.endsWith(".mp4") || lowerName.endsWith(".flv") || lowerName.endsWith(".mkv");
-        });
-
-        if (files != null) {
-            for (File file : files) {
-                try {
-                    // 调用解码接口解析元数据（解耦）
-                    codecService.init(file.getPath());
-                    scannedMedia.add(file.getPath());
-                    mediaLibrary.add(file.getPath());
-                    logger.info("扫描到媒体文件：{}", file.getPath());
-                } catch (Exception e) {
-                    logger.warn("跳过无效媒体文件：{}", file.getPath());
-                }
+        try {
+            List<MediaInfo> scannedMedia = mediaScanner.scan(folder, mediaLibrary, listener);
+            applyScanResult(folder, scannedMedia);
+            if (libraryRoots.add(folder.toString())) {
+                indexDirty.set(true);
+                startWatching(folder);
             }
+            saveIndexIfDirty();
+            return scannedMedia;
+        } catch (Exception e) {
+            logger.error("扫描媒体失败：{}", folderPath, e);
+            return new ArrayList<>();
         }
+    }
 
-        logger.info("扫描完成，共发现{}个有效媒体", scannedMedia.size());
-        return scannedMedia;
+    @Override
+    public CompletableFuture<List<MediaInfo>> scanLocalMediaAsync(String folderPath, MediaScanListener listener) {
+        return CompletableFuture.supplyAsync(() -> scanLocalMedia(folderPath, listener), ioExecutor);
+    }
+
+    @Override
+    public void refreshLibrary() {
+        ensureIndexLoaded();
+        for (String root : new ArrayList<>(libraryRoots)) {
+            Path folder = Paths.get(root);
+            if (!Files.isDirectory(folder)) {
+                // 根目录已被删除：移除其下全部条目
+                libraryRoots.remove(root);
+                removeUnder(folder, Set.of());
+                indexDirty.set(true);
+                continue;
+            }
+            try {
+                applyScanResult(folder, mediaScanner.scan(folder, mediaLibrary, null));
+            } catch (Exception e) {
+                logger.error("刷新媒体库失败：{}", root, e);
+            }
+        }
+        saveIndexIfDirty();
+    }
+
+    @Override
+    public MediaInfo getMediaInfo(String mediaPath) {
+        ensureIndexLoaded();
+        return mediaLibrary.get(mediaPath);
+    }
+
+    @Override
+    public List<MediaInfo> getLibraryMedia() {
+        ensureIndexLoaded();
+        return new ArrayList<>(mediaLibrary.values());
+    }
+
+    @Override
+    public MediaSearchResult searchLibrary(MediaSearchQuery query) {
+        ensureIndexLoaded();
+        return searchIndex.search(query);
+    }
+
+    // ---------------------- 索引维护（内部） ----------------------
+
+    // 首次访问媒体库时加载索引文件（只做反序列化，不探测任何媒体文件）
+    private void ensureIndexLoaded() {
+        if (indexLoaded) {
+            return;
+        }
+        synchronized (this) {
+            if (indexLoaded) {
+                return;
+            }
+            try {
+                long begin = System.nanoTime();
+                int count = indexStore.load(libraryRoots, mediaLibrary);
+                mediaLibrary.values().forEach(searchIndex::put);
+                logger.info("媒体库索引加载完成：{}条，耗时{}ms", count, (System.nanoTime() - begin) / 1_000_000);
+            } catch (Exception e) {
+                logger.warn("媒体库索引读取失败，将在下次扫描时重建：{}", indexStore.getIndexFile(), e);
+                libraryRoots.clear();
+                mediaLibrary.clear();
+                searchIndex.clear();
+            }
+            indexLoaded = true;
+            libraryRoots.forEach(root -> startWatching(Paths.get(root)));
+        }
+    }
+
+    private void applyScanResult(Path root, List<MediaInfo> scannedMedia) {
+        Set<String> scannedPaths = new HashSet<>();
+        for (MediaInfo info : scannedMedia) {
+            scannedPaths.add(info.getPath());
+            if (putMedia(info) != info) {
+                indexDirty.set(true);
+            }
+        }
+        removeUnder(root, scannedPaths);
+    }
+
+    // 移除root下不在保留集合中的条目（文件已删除或不再是有效媒体）
+    private void removeUnder(Path root, Set<String> retained) {
+        String prefix = root.toString() + File.separator;
+        List<String> removed = new ArrayList<>();
+        for (String path : mediaLibrary.keySet()) {
+            if ((path.startsWith(prefix) || path.equals(root.toString())) && !retained.contains(path)) {
+                removed.add(path);
+            }
+        }
+        removed.forEach(this::removeMedia);
+        if (!removed.isEmpty()) {
+            indexDirty.set(true);
+        }
+    }
+
+    // 媒体库条目的增删统一经过这里，同步更新检索索引
+    private MediaInfo putMedia(MediaInfo info) {
+        MediaInfo previous = mediaLibrary.put(info.getPath(), info);
+        if (previous != info) {
+            searchIndex.put(info);
+        }
+        return previous;
+    }
+
+    private void removeMedia(String path) {
+        if (mediaLibrary.remove(path) != null) {
+            searchIndex.remove(path);
+        }
+    }
+
+    private synchronized void saveIndexIfDirty() {
+        if (!indexDirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            indexStore.save(new ArrayList<>(libraryRoots), new ArrayList<>(mediaLibrary.values()));
+            logger.info("媒体库索引已保存：{}条", mediaLibrary.size());
+        } catch (Exception e) {
+            indexDirty.set(true);
+            logger.error("保存媒体库索引失败", e);
+        }
+    }
+
+    // 监听线程产生变化后安排一次索引写回，窗口内的后续变化合并到同一次写盘
+    private void scheduleIndexSave() {
+        if (indexDirty.get() && indexSaveScheduled.compareAndSet(false, true)) {
+            try {
+                indexWriter.schedule(() -> {
+                    indexSaveScheduled.set(false);
+                    saveIndexIfDirty();
+                }, INDEX_SAVE_DELAY_MS, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                indexSaveScheduled.set(false); // 已关闭：由close中的同步保存处理
+            }
+        }
+    }
+
+    private synchronized void startWatching(Path root) {
+        if (!watchEnabled) {
+            return;
+        }
+        try {
+            if (libraryWatcher == null) {
+                libraryWatcher = new MediaLibraryWatcher(logger, new MediaLibraryWatcher.ChangeHandler() {
+                    @Override
+                    public void onFileChanged(Path file) {
+                        refreshFile(file);
+                        scheduleIndexSave();
+                    }
+
+                    @Override
+                    public void onPathDeleted(Path path) {
+                        removeUnder(path, Set.of());
+                        scheduleIndexSave();
+                    }
+                });
+            }
+            libraryWatcher.watch(root);
+        } catch (Exception e) {
+            logger.warn("媒体库目录监听启动失败：{}", root, e);
+        }
+    }
+
+    // 监听线程回调：重新探测单个变化的文件
+    private void refreshFile(Path file) {
+        if (!MediaScanner.isSupportedMedia(file)) {
+            return;
+        }
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            MediaInfo indexed = mediaLibrary.get(file.toString());
+            if (indexed != null && indexed.getSize() == attrs.size()
+                    && indexed.getLastModified() == attrs.lastModifiedTime().toMillis()) {
+                return;
+            }
+            putMedia(MediaProbe.probe(file, attrs.size(), attrs.lastModifiedTime().toMillis()));
+            indexDirty.set(true);
+        } catch (Exception e) {
+            // 文件仍在写入或不是有效媒体：等待下一次修改事件
+            logger.debug("媒体文件暂不可探测：{}（{}）", file, e.getMessage());
+        }
     }
 
     // 播放列表操作：委托给PlaylistManager
@@ -73,6 +304,45 @@ public class MediaLibrary implements MediaService {
         playlistManager.remove(mediaPath);
     }
 
+    @Override
+    public int importPlaylist(String playlistPath) {
+        Path file = Paths.get(playlistPath);
+        if (!Files.isRegularFile(file)) {
+            logger.warn("播放列表文件不存在：{}", playlistPath);
+            return 0;
+        }
+        try {
+            long begin = System.nanoTime();
+            List<String> entries = PlaylistFileReader.read(file);
+            int added = playlistManager.addAll(entries);
+            logger.info("播放列表导入完成：{}，共{}条，新增{}条，耗时{}ms", playlistPath, entries.size(), added,
+                    (System.nanoTime() - begin) / 1_000_000);
+            return added;
+        } catch (Exception e) {
+            logger.error("导入播放列表失败：{}", playlistPath, e);
+            return 0;
+        }
+    }
+
+    @Override
+    public boolean exportPlaylist(String playlistPath) {
+        List<String> playlist = playlistManager.getPlaylist();
+        ensureIndexLoaded(); // 导出时附带媒体库中的时长信息
+        try {
+            PlaylistFileWriter.write(Paths.get(playlistPath), playlist, mediaLibrary::get);
+            logger.info("播放列表已导出：{}，共{}条", playlistPath, playlist.size());
+            return true;
+        } catch (Exception e) {
+            logger.error("导出播放列表失败：{}", playlistPath, e);
+            return false;
+        }
+    }
+
+    @Override
+    public void moveInPlaylist(String mediaPath, int toIndex) {
+        playlistManager.move(mediaPath, toIndex);
+    }
+
     @Override
     public List<String> getPlaylist() {
         return playlistManager.getPlaylist();
@@ -83,17 +353,54 @@ public class MediaLibrary implements MediaService {
         return playlistManager.getNext();
     }
 
+    @Override
+    public String peekNextMedia() {
+        return playlistManager.peekNext();
+    }
+
+    @Override
+    public void setCurrentMedia(String mediaPath) {
+        playlistManager.moveTo(mediaPath);
+    }
+
+    @Override
+    public String getPreviousMedia() {
+        return playlistManager.getPrevious();
+    }
+
+    @Override
+    public void setShuffle(boolean enabled) {
+        playlistManager.setRandom(enabled);
+    }
+
+    @Override
+    public void setRepeatMode(RepeatMode mode) {
+        playlistManager.setRepeatMode(mode);
+    }
+
     // 历史记录操作（内部封装）
     @Override
     public void savePlayHistory(String mediaPath, long position) {
-        playHistory.add(mediaPath + ":" + position);
-        logger.info("保存播放历史：{} @ {}秒", mediaPath, position);
+        if (mediaPath == null) {
+            return;
+        }
+        playHistory.record(mediaPath, Math.max(0, position));
+        logger.debug("保存播放历史：{} @ {}ms", mediaPath, position);
     }
 
     @Override
     public long getLastPlayPosition(String mediaPath) {
-        // 内部查询逻辑（简化）
-        return 0;
+        return mediaPath == null ? 0 : playHistory.getLastPosition(mediaPath);
+    }
+
+    @Override
+    public CompletableFuture<Void> savePlayHistoryAsync(String mediaPath, long position) {
+        return CompletableFuture.runAsync(() -> savePlayHistory(mediaPath, position), ioExecutor);
+    }
+
+    @Override
+    public CompletableFuture<Long> getLastPlayPositionAsync(String mediaPath) {
+        return CompletableFuture.supplyAsync(() -> getLastPlayPosition(mediaPath), ioExecutor);
     }
 
     // 提供appContext的访问接口
@@ -101,4 +408,19 @@ public class MediaLibrary implements MediaService {
         return appContext;
     }
 
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (libraryWatcher != null) {
+                libraryWatcher.close();
+            }
+        }
+        ioExecutor.shutdownNow();
+        indexWriter.shutdownNow(); // 取消延迟写回，下面同步保存
+        mediaScanner.close();
+        playHistory.close();
+        saveIndexIfDirty();
+        logger.info("媒体库资源已释放");
+    }
+
 }
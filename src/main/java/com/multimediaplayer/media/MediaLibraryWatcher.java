@@ -0,0 +1,123 @@
+package com.multimediaplayer.media;
+
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 媒体库目录监听：基于WatchService实时应用文件新增/修改/删除
+ * WatchService不支持递归，需为每个子目录单独注册
+ */
+class MediaLibraryWatcher implements AutoCloseable {
+
+    /**
+     * 目录变化回调（在监听线程中执行）
+     */
+    interface ChangeHandler {
+        void onFileChanged(Path file);
+
+        void onPathDeleted(Path path);
+    }
+
+    private final Logger logger;
+    private final ChangeHandler handler;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> watchedDirs = new ConcurrentHashMap<>();
+    private final Thread watchThread;
+
+    MediaLibraryWatcher(Logger logger, ChangeHandler handler) throws IOException {
+        this.logger = logger;
+        this.handler = handler;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.watchThread = new Thread(this::processEvents, "media-library-watcher");
+        this.watchThread.setDaemon(true);
+        this.watchThread.start();
+    }
+
+    /**
+     * 递归注册目录（已注册的目录重复注册无副作用）
+     */
+    void watch(Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                watchedDirs.put(key, dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void processEvents() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            Path dir = watchedDirs.get(key);
+            if (dir != null) {
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        logger.warn("媒体库监听事件溢出，部分变化需手动刷新：{}", dir);
+                        continue;
+                    }
+                    dispatch(event.kind(), dir.resolve((Path) event.context()));
+                }
+            }
+            if (!key.reset()) {
+                watchedDirs.remove(key); // 目录已被删除
+            }
+        }
+    }
+
+    private void dispatch(WatchEvent.Kind<?> kind, Path path) {
+        try {
+            if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
+                handler.onPathDeleted(path);
+            } else if (Files.isDirectory(path)) {
+                if (kind == StandardWatchEventKinds.ENTRY_CREATE) {
+                    // 新目录：注册监听，并补录注册前已写入的文件
+                    watch(path);
+                    try (var files = Files.walk(path)) {
+                        files.filter(Files::isRegularFile).forEach(handler::onFileChanged);
+                    }
+                }
+            } else if (MediaScanner.isSupportedMedia(path)) {
+                handler.onFileChanged(path);
+            }
+        } catch (Exception e) {
+            logger.warn("处理媒体库变化失败：{}", path, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.error("关闭媒体库监听失败", e);
+        }
+        watchThread.interrupt();
+    }
+}
@@ -0,0 +1,621 @@
+package com.multimediaplayer.media;
+
+import com.multimediaplayer.media.api.MediaInfo;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * 容器头部探测：只读取MP4 moov、MKV EBML头/Tracks、FLV onMetaData等少量字节提取元数据
+ * 不创建Media/MediaPlayer，可在任意工作线程并发调用
+ */
+final class MediaProbe {
+    private static final int MAX_MOOV_SIZE = 32 * 1024 * 1024;  // moov超过此大小视为异常文件
+    private static final int MKV_HEAD_SIZE = 2 * 1024 * 1024;    // Tracks通常位于文件前部
+    private static final int FLV_HEAD_SIZE = 64 * 1024;
+
+    private MediaProbe() {
+    }
+
+    /**
+     * 探测媒体元数据
+     * @return 元数据；无法识别的容器抛出IOException
+     */
+    static MediaInfo probe(Path path, long size, long lastModified) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(12);
+            readFully(channel, magic, 0);
+            magic.flip();
+
+            Result result = new Result();
+            if (magic.remaining() >= 4 && (magic.getInt(0) == 0x1A45DFA3)) {
+                result.container = "mkv";
+                probeMatroska(channel, result);
+            } else if (magic.remaining() >= 3 && magic.get(0) == 'F' && magic.get(1) == 'L' && magic.get(2) == 'V') {
+                result.container = "flv";
+                probeFlv(channel, result);
+            } else if (magic.remaining() >= 8 && isMp4Box(magic.getInt(4))) {
+                result.container = "mp4";
+                probeMp4(channel, result);
+            } else {
+                throw new IOException("无法识别的容器格式：" + path);
+            }
+            return new MediaInfo(path.toString(), size, lastModified, result.container, result.durationMs,
+                    result.videoCodec, result.audioCodec, result.width, result.height);
+        }
+    }
+
+    // 解析结果（仅探测过程内部使用）
+    private static final class Result {
+        String container;
+        long durationMs;
+        String videoCodec;
+        String audioCodec;
+        int width;
+        int height;
+    }
+
+    // ---------------------- MP4 / MOV ----------------------
+    private static final int FTYP = fourcc("ftyp");
+    private static final int MOOV = fourcc("moov");
+    private static final int MVHD = fourcc("mvhd");
+    private static final int TRAK = fourcc("trak");
+    private static final int TKHD = fourcc("tkhd");
+    private static final int MDIA = fourcc("mdia");
+    private static final int HDLR = fourcc("hdlr");
+    private static final int MINF = fourcc("minf");
+    private static final int STBL = fourcc("stbl");
+    private static final int STSD = fourcc("stsd");
+    private static final int VIDE = fourcc("vide");
+    private static final int SOUN = fourcc("soun");
+
+    private static boolean isMp4Box(int type) {
+        return type == FTYP || type == MOOV || type == fourcc("mdat") || type == fourcc("free")
+                || type == fourcc("wide") || type == fourcc("skip");
+    }
+
+    private static void probeMp4(FileChannel channel, Result result) throws IOException {
+        long fileSize = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(16);
+        // 仅遍历顶层box头部，mdat等大块数据直接跳过，moov位于文件尾部也只需少量读取
+        while (position + 8 <= fileSize) {
+            header.clear().limit(8);
+            readFully(channel, header, position);
+            header.flip();
+            if (header.remaining() < 8) {
+                return; // 文件尾部截断
+            }
+            long boxSize = header.getInt() & 0xFFFFFFFFL;
+            int type = header.getInt();
+            int headerSize = 8;
+            if (boxSize == 1) {
+                header.clear().limit(8);
+                readFully(channel, header, position + 8);
+                header.flip();
+                if (header.remaining() < 8) {
+                    return;
+                }
+                boxSize = header.getLong();
+                headerSize = 16;
+            } else if (boxSize == 0) {
+                boxSize = fileSize - position;
+            }
+            if (boxSize < headerSize) {
+                return; // 损坏的box
+            }
+            if (type == MOOV) {
+                long payload = boxSize - headerSize;
+                if (payload > MAX_MOOV_SIZE) {
+                    return;
+                }
+                ByteBuffer moov = ByteBuffer.allocate((int) payload);
+                readFully(channel, moov, position + headerSize);
+                moov.flip();
+                try {
+                    parseMoov(moov, result);
+                } catch (BufferUnderflowException | IllegalArgumentException e) {
+                    // 截断的moov：保留已解析字段
+                }
+                return;
+            }
+            position += boxSize;
+        }
+    }
+
+    private static void parseMoov(ByteBuffer moov, Result result) {
+        forEachBox(moov, (type, payload) -> {
+            if (type == MVHD) {
+                int version = payload.get() & 0xFF;
+                payload.position(version == 1 ? 4 + 16 : 4 + 8); // 跳过flags与创建/修改时间
+                long timescale = payload.getInt() & 0xFFFFFFFFL;
+                long duration = version == 1 ? payload.getLong() : payload.getInt() & 0xFFFFFFFFL;
+                if (timescale > 0) {
+                    result.durationMs = duration * 1000 / timescale;
+                }
+            } else if (type == TRAK) {
+                parseTrak(payload, result);
+            }
+            return true;
+        });
+    }
+
+    private static void parseTrak(ByteBuffer trak, Result result) {
+        int width = 0;
+        int height = 0;
+        ByteBuffer tkhd = findBox(trak, TKHD);
+        if (tkhd != null && tkhd.remaining() >= 8) {
+            // tkhd末尾为16.16定点数的宽高
+            width = tkhd.getInt(tkhd.limit() - 8) >>> 16;
+            height = tkhd.getInt(tkhd.limit() - 4) >>> 16;
+        }
+        ByteBuffer mdia = findBox(trak, MDIA);
+        if (mdia == null) {
+            return;
+        }
+        ByteBuffer hdlr = findBox(mdia, HDLR);
+        int handler = hdlr != null && hdlr.remaining() >= 12 ? hdlr.getInt(8) : 0;
+        ByteBuffer minf = findBox(mdia, MINF);
+        ByteBuffer stbl = minf == null ? null : findBox(minf, STBL);
+        ByteBuffer stsd = stbl == null ? null : findBox(stbl, STSD);
+        String format = stsd != null && stsd.remaining() >= 16 ? fourccName(stsd.getInt(12)) : "";
+
+        if (handler == VIDE && result.videoCodec == null) {
+            result.videoCodec = mp4CodecName(format);
+            result.width = width;
+            result.height = height;
+        } else if (handler == SOUN && result.audioCodec == null) {
+            result.audioCodec = mp4CodecName(format);
+        }
+    }
+
+    private static String mp4CodecName(String format) {
+        switch (format) {
+            case "avc1":
+            case "avc3":
+                return "h264";
+            case "hvc1":
+            case "hev1":
+                return "hevc";
+            case "mp4v":
+                return "mpeg4";
+            case "av01":
+                return "av1";
+            case "vp09":
+                return "vp9";
+            case "mp4a":
+                return "aac";
+            case "ac-3":
+                return "ac3";
+            case "ec-3":
+                return "eac3";
+            case "Opus":
+                return "opus";
+            case ".mp3":
+                return "mp3";
+            default:
+                return format.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    // 子box遍历回调，返回false时停止遍历
+    @FunctionalInterface
+    private interface BoxVisitor {
+        boolean visit(int type, ByteBuffer payload);
+    }
+
+    // 遍历直接子box，payload不含头部且与父缓冲区共享内容
+    private static void forEachBox(ByteBuffer parent, BoxVisitor visitor) {
+        ByteBuffer cursor = parent.duplicate();
+        while (cursor.remaining() >= 8) {
+            int start = cursor.position();
+            long size = cursor.getInt() & 0xFFFFFFFFL;
+            int type = cursor.getInt();
+            if (size == 1) {
+                size = cursor.getLong();
+            } else if (size == 0) {
+                size = cursor.limit() - start;
+            }
+            int payloadStart = cursor.position();
+            if (size < payloadStart - start || size > cursor.limit() - start) {
+                throw new IllegalArgumentException("box大小非法");
+            }
+            int end = (int) (start + size);
+            ByteBuffer payload = cursor.duplicate();
+            payload.position(payloadStart).limit(end);
+            if (!visitor.visit(type, payload.slice())) {
+                return;
+            }
+            cursor.position(end);
+        }
+    }
+
+    // 查找直接子box，返回其payload（不含头部）
+    private static ByteBuffer findBox(ByteBuffer parent, int type) {
+        ByteBuffer[] found = new ByteBuffer[1];
+        forEachBox(parent, (boxType, payload) -> {
+            if (boxType == type) {
+                found[0] = payload;
+                return false;
+            }
+            return true;
+        });
+        return found[0];
+    }
+
+    private static int fourcc(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.US_ASCII);
+        return (bytes[0] & 0xFF) << 24 | (bytes[1] & 0xFF) << 16 | (bytes[2] & 0xFF) << 8 | (bytes[3] & 0xFF);
+    }
+
+    private static String fourccName(int value) {
+        byte[] bytes = {(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value};
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    // ---------------------- Matroska / WebM ----------------------
+    private static final int EBML_DOC_TYPE = 0x4282;
+    private static final int MKV_SEGMENT = 0x18538067;
+    private static final int MKV_INFO = 0x1549A966;
+    private static final int MKV_TIMECODE_SCALE = 0x2AD7B1;
+    private static final int MKV_DURATION = 0x4489;
+    private static final int MKV_TRACKS = 0x1654AE6B;
+    private static final int MKV_TRACK_ENTRY = 0xAE;
+    private static final int MKV_TRACK_TYPE = 0x83;
+    private static final int MKV_CODEC_ID = 0x86;
+    private static final int MKV_VIDEO = 0xE0;
+    private static final int MKV_PIXEL_WIDTH = 0xB0;
+    private static final int MKV_PIXEL_HEIGHT = 0xBA;
+    private static final int MKV_CLUSTER = 0x1F43B675;
+
+    private static void probeMatroska(FileChannel channel, Result result) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate((int) Math.min(channel.size(), MKV_HEAD_SIZE));
+        readFully(channel, head, 0);
+        head.flip();
+        try {
+            // EBML头
+            readElementId(head);
+            long headerSize = readElementSize(head);
+            int headerEnd = (int) (head.position() + headerSize);
+            while (head.position() < headerEnd) {
+                int id = readElementId(head);
+                int size = (int) readElementSize(head);
+                if (id == EBML_DOC_TYPE) {
+                    String docType = readString(head, size);
+                    result.container = "webm".equals(docType) ? "webm" : "mkv";
+                } else {
+                    skip(head, size);
+                }
+            }
+
+            // Segment
+            if (readElementId(head) != MKV_SEGMENT) {
+                return;
+            }
+            readElementSize(head); // Segment常为未知大小，直接按子元素遍历
+            long timecodeScale = 1_000_000L; // 默认1ms
+            double duration = -1;
+            while (head.remaining() > 0) {
+                int id = readElementId(head);
+                long size = readElementSize(head);
+                if (id == MKV_CLUSTER || size < 0) {
+                    break; // 进入媒体数据，元数据已解析完毕
+                }
+                int end = (int) Math.min(head.limit(), head.position() + size);
+                if (id == MKV_INFO) {
+                    while (head.position() < end) {
+                        int childId = readElementId(head);
+                        int childSize = (int) readElementSize(head);
+                        if (childId == MKV_TIMECODE_SCALE) {
+                            timecodeScale = readUnsigned(head, childSize);
+                        } else if (childId == MKV_DURATION) {
+                            duration = childSize == 4 ? head.getFloat() : head.getDouble();
+                        } else {
+                            skip(head, childSize);
+                        }
+                    }
+                    // Info解析完立即换算，后续超出头部缓冲区的元素（如字体附件）导致的截断不影响时长
+                    if (duration > 0) {
+                        result.durationMs = (long) (duration * timecodeScale / 1_000_000d);
+                    }
+                } else if (id == MKV_TRACKS) {
+                    while (head.position() < end) {
+                        int childId = readElementId(head);
+                        int childSize = (int) readElementSize(head);
+                        if (childId == MKV_TRACK_ENTRY) {
+                            parseMatroskaTrack(head, head.position() + childSize, result);
+                        } else {
+                            skip(head, childSize);
+                        }
+                    }
+                } else {
+                    skip(head, size);
+                }
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            // 头部截断或非标准写法：保留已解析字段
+        }
+    }
+
+    private static void parseMatroskaTrack(ByteBuffer head, int end, Result result) {
+        long trackType = 0;
+        String codecId = "";
+        int width = 0;
+        int height = 0;
+        while (head.position() < end) {
+            int id = readElementId(head);
+            int size = (int) readElementSize(head);
+            if (id == MKV_TRACK_TYPE) {
+                trackType = readUnsigned(head, size);
+            } else if (id == MKV_CODEC_ID) {
+                codecId = readString(head, size);
+            } else if (id == MKV_VIDEO) {
+                int videoEnd = head.position() + size;
+                while (head.position() < videoEnd) {
+                    int childId = readElementId(head);
+                    int childSize = (int) readElementSize(head);
+                    if (childId == MKV_PIXEL_WIDTH) {
+                        width = (int) readUnsigned(head, childSize);
+                    } else if (childId == MKV_PIXEL_HEIGHT) {
+                        height = (int) readUnsigned(head, childSize);
+                    } else {
+                        skip(head, childSize);
+                    }
+                }
+            } else {
+                skip(head, size);
+            }
+        }
+        if (trackType == 1 && result.videoCodec == null) {
+            result.videoCodec = matroskaCodecName(codecId);
+            result.width = width;
+            result.height = height;
+        } else if (trackType == 2 && result.audioCodec == null) {
+            result.audioCodec = matroskaCodecName(codecId);
+        }
+    }
+
+    private static String matroskaCodecName(String codecId) {
+        if (codecId.startsWith("A_AAC")) {
+            return "aac";
+        }
+        switch (codecId) {
+            case "V_MPEG4/ISO/AVC":
+                return "h264";
+            case "V_MPEGH/ISO/HEVC":
+                return "hevc";
+            case "V_VP8":
+                return "vp8";
+            case "V_VP9":
+                return "vp9";
+            case "V_AV1":
+                return "av1";
+            case "A_OPUS":
+                return "opus";
+            case "A_VORBIS":
+                return "vorbis";
+            case "A_AC3":
+                return "ac3";
+            case "A_EAC3":
+                return "eac3";
+            case "A_MPEG/L3":
+                return "mp3";
+            case "A_FLAC":
+                return "flac";
+            default:
+                return codecId.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    // EBML元素ID：保留长度标记位
+    private static int readElementId(ByteBuffer buffer) {
+        int first = buffer.get() & 0xFF;
+        int length = Integer.numberOfLeadingZeros(first) - 23;
+        if (length < 1 || length > 4) {
+            throw new IllegalArgumentException("非法EBML ID");
+        }
+        int id = first;
+        for (int i = 1; i < length; i++) {
+            id = (id << 8) | (buffer.get() & 0xFF);
+        }
+        return id;
+    }
+
+    // EBML元素大小：去除长度标记位，全1表示未知大小（返回-1）
+    private static long readElementSize(ByteBuffer buffer) {
+        int first = buffer.get() & 0xFF;
+        int length = Integer.numberOfLeadingZeros(first) - 23;
+        if (length < 1 || length > 8) {
+            throw new IllegalArgumentException("非法EBML大小");
+        }
+        long value = first & (0xFF >>> length);
+        boolean allOnes = value == (0xFF >>> length);
+        for (int i = 1; i < length; i++) {
+            int next = buffer.get() & 0xFF;
+            allOnes &= next == 0xFF;
+            value = (value << 8) | next;
+        }
+        return allOnes ? -1 : value;
+    }
+
+    private static long readUnsigned(ByteBuffer buffer, int size) {
+        long value = 0;
+        for (int i = 0; i < size; i++) {
+            value = (value << 8) | (buffer.get() & 0xFF);
+        }
+        return value;
+    }
+
+    private static String readString(ByteBuffer buffer, int size) {
+        byte[] bytes = new byte[size];
+        buffer.get(bytes);
+        int length = size;
+        while (length > 0 && bytes[length - 1] == 0) {
+            length--; // EBML字符串可能以0填充
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static void skip(ByteBuffer buffer, long size) {
+        if (size < 0 || size > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        buffer.position(buffer.position() + (int) size);
+    }
+
+    // ---------------------- FLV ----------------------
+    private static final int FLV_TAG_SCRIPT = 18;
+    private static final int AMF_NUMBER = 0;
+    private static final int AMF_BOOLEAN = 1;
+    private static final int AMF_STRING = 2;
+    private static final int AMF_OBJECT = 3;
+    private static final int AMF_ECMA_ARRAY = 8;
+    private static final int AMF_OBJECT_END = 9;
+
+    private static void probeFlv(FileChannel channel, Result result) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate((int) Math.min(channel.size(), FLV_HEAD_SIZE));
+        readFully(channel, head, 0);
+        head.flip();
+        try {
+            head.position(4);
+            int flags = head.get() & 0xFF;
+            int dataOffset = head.getInt();
+            head.position(dataOffset + 4); // 跳过PreviousTagSize0
+            int tagType = head.get() & 0x1F;
+            int dataSize = (head.get() & 0xFF) << 16 | (head.get() & 0xFF) << 8 | (head.get() & 0xFF);
+            head.position(head.position() + 7); // 时间戳与StreamID
+            if (tagType == FLV_TAG_SCRIPT) {
+                ByteBuffer script = head.slice();
+                script.limit(Math.min(script.limit(), dataSize));
+                parseOnMetaData(script, result);
+            }
+            // 无onMetaData时，仅按头部标记位判断是否含音视频
+            if (result.videoCodec == null && (flags & 0x01) != 0) {
+                result.videoCodec = "unknown";
+            }
+            if (result.audioCodec == null && (flags & 0x04) != 0) {
+                result.audioCodec = "unknown";
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            // 头部截断：保留已解析字段
+        }
+    }
+
+    private static void parseOnMetaData(ByteBuffer script, Result result) {
+        if ((script.get() & 0xFF) != AMF_STRING || !"onMetaData".equals(readAmfString(script))) {
+            return;
+        }
+        int containerType = script.get() & 0xFF;
+        if (containerType == AMF_ECMA_ARRAY) {
+            script.getInt(); // 元素数量（不可靠，以结束标记为准）
+        } else if (containerType != AMF_OBJECT) {
+            return;
+        }
+        while (script.remaining() >= 3) {
+            String key = readAmfString(script);
+            int valueType = script.get() & 0xFF;
+            if (key.isEmpty() && valueType == AMF_OBJECT_END) {
+                return;
+            }
+            if (valueType == AMF_NUMBER) {
+                double value = script.getDouble();
+                switch (key) {
+                    case "duration":
+                        result.durationMs = (long) (value * 1000);
+                        break;
+                    case "width":
+                        result.width = (int) value;
+                        break;
+                    case "height":
+                        result.height = (int) value;
+                        break;
+                    case "videocodecid":
+                        result.videoCodec = flvVideoCodecName((int) value);
+                        break;
+                    case "audiocodecid":
+                        result.audioCodec = flvAudioCodecName((int) value);
+                        break;
+                    default:
+                        break;
+                }
+            } else if (valueType == AMF_BOOLEAN) {
+                script.get();
+            } else if (valueType == AMF_STRING) {
+                String value = readAmfString(script);
+                if ("videocodecid".equals(key)) {
+                    result.videoCodec = value.trim().toLowerCase(Locale.ROOT);
+                } else if ("audiocodecid".equals(key)) {
+                    result.audioCodec = value.trim().toLowerCase(Locale.ROOT);
+                }
+            } else {
+                return; // 其余复杂类型不影响所需字段，停止解析
+            }
+        }
+    }
+
+    private static String flvVideoCodecName(int id) {
+        switch (id) {
+            case 2:
+                return "h263";
+            case 3:
+                return "screen";
+            case 4:
+                return "vp6";
+            case 5:
+                return "vp6a";
+            case 7:
+                return "h264";
+            case 12:
+                return "hevc";
+            default:
+                return "flv-" + id;
+        }
+    }
+
+    private static String flvAudioCodecName(int id) {
+        switch (id) {
+            case 0:
+            case 3:
+                return "pcm";
+            case 1:
+                return "adpcm";
+            case 2:
+                return "mp3";
+            case 10:
+                return "aac";
+            case 11:
+                return "speex";
+            default:
+                return "flv-" + id;
+        }
+    }
+
+    private static String readAmfString(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // ---------------------- 公共读取 ----------------------
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset);
+            if (read < 0) {
+                if (offset == position) {
+                    throw new EOFException("文件为空");
+                }
+                return; // 文件尾：由调用方根据remaining判断
+            }
+            offset += read;
+        }
+    }
+}
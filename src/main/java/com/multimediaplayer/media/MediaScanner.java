@@ -0,0 +1,165 @@
+package com.multimediaplayer.media;
+
+import com.multimediaplayer.media.api.MediaInfo;
+import com.multimediaplayer.media.api.MediaScanListener;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 媒体扫描器：NIO递归遍历目录，在有界线程池中并发探测容器头部
+ * 仅读取文件头，不创建播放器实例，不影响当前正在播放的解码器
+ * 关闭后正在进行的扫描提前结束：未提交和已排队未执行的探测任务直接注销，scan返回已探测的部分结果
+ */
+public class MediaScanner implements AutoCloseable {
+    private final Logger logger;
+    private final ThreadPoolExecutor probeExecutor;
+
+    public MediaScanner(Logger logger, int threads) {
+        this.logger = logger;
+        AtomicInteger threadIndex = new AtomicInteger();
+        // 有界队列 + 调用方执行：遍历速度快于探测时自动回压，避免5万个任务堆积在内存中；关闭后拒绝并抛出，由提交方注销
+        this.probeExecutor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 64),
+                r -> {
+                    Thread thread = new Thread(r, "media-probe-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, executor) -> {
+                    if (executor.isShutdown()) {
+                        throw new RejectedExecutionException("媒体扫描器已关闭");
+                    }
+                    task.run();
+                });
+        this.probeExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    static boolean isSupportedMedia(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".mp4") || name.endsWith(".m4v") || name.endsWith(".mov")
+                || name.endsWith(".mkv") || name.endsWith(".webm") || name.endsWith(".flv");
+    }
+
+    /**
+     * 递归扫描目录（阻塞直到全部探测完成）
+     * @param root 根目录
+     * @param known 已索引的媒体（路径→元数据），大小与修改时间未变化的文件直接复用，不再探测
+     * @param listener 进度监听（可为null）
+     * @return 探测成功的媒体元数据（顺序不保证）
+     */
+    public List<MediaInfo> scan(Path root, Map<String, MediaInfo> known, MediaScanListener listener) throws IOException {
+        ConcurrentLinkedQueue<MediaInfo> results = new ConcurrentLinkedQueue<>();
+        AtomicInteger discovered = new AtomicInteger();
+        AtomicInteger probed = new AtomicInteger();
+        AtomicInteger reused = new AtomicInteger();
+        Phaser pending = new Phaser(1); // 遍历线程自身注册一方，结束后等待全部探测任务
+
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (!attrs.isRegularFile() || !isSupportedMedia(file)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                discovered.incrementAndGet();
+                MediaInfo indexed = known.get(file.toString());
+                if (indexed != null && indexed.getSize() == attrs.size()
+                        && indexed.getLastModified() == attrs.lastModifiedTime().toMillis()) {
+                    results.add(indexed);
+                    reused.incrementAndGet();
+                    int done = probed.incrementAndGet();
+                    if (listener != null) {
+                        listener.onMediaScanned(indexed, done, discovered.get());
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+                pending.register();
+                try {
+                    probeExecutor.execute(new ProbeTask(pending, () -> {
+                        MediaInfo info = MediaProbe.probe(file, attrs.size(), attrs.lastModifiedTime().toMillis());
+                        results.add(info);
+                        int done = probed.incrementAndGet();
+                        if (listener != null) {
+                            listener.onMediaScanned(info, done, discovered.get());
+                        }
+                        return null;
+                    }, file));
+                } catch (RejectedExecutionException e) {
+                    pending.arriveAndDeregister(); // 扫描器已关闭：任务不会执行，停止遍历
+                    return FileVisitResult.TERMINATE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                logger.debug("无法访问：{}（{}）", file, e.getMessage());
+                return FileVisitResult.CONTINUE; // 无权限的子目录不影响整体扫描
+            }
+        });
+
+        pending.arriveAndAwaitAdvance();
+        logger.info("扫描完成：{}，发现{}个候选文件，有效媒体{}个（未变化{}个）",
+                root, discovered.get(), results.size(), reused.get());
+        return new ArrayList<>(results);
+    }
+
+    // 探测任务：执行完毕或被关闭丢弃时各注销一次，保证scan的等待能够结束
+    private final class ProbeTask implements Runnable {
+        private final Phaser pending;
+        private final Callable<Void> probe;
+        private final Path file;
+        private final AtomicBoolean finished = new AtomicBoolean(false);
+
+        private ProbeTask(Phaser pending, Callable<Void> probe, Path file) {
+            this.pending = pending;
+            this.probe = probe;
+            this.file = file;
+        }
+
+        @Override
+        public void run() {
+            try {
+                probe.call();
+            } catch (Exception e) {
+                logger.debug("跳过无效媒体文件：{}（{}）", file, e.getMessage());
+            } finally {
+                cancel();
+            }
+        }
+
+        void cancel() {
+            if (finished.compareAndSet(false, true)) {
+                pending.arriveAndDeregister();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        // 已排队但未执行的任务被丢弃，注销其等待方
+        for (Runnable task : probeExecutor.shutdownNow()) {
+            if (task instanceof ProbeTask) {
+                ((ProbeTask) task).cancel();
+            }
+        }
+    }
+}
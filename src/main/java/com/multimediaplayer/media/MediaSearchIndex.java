@@ -0,0 +1,419 @@
+package com.multimediaplayer.media;
+
+import com.multimediaplayer.media.api.MediaInfo;
+import com.multimediaplayer.media.api.MediaSearchQuery;
+import com.multimediaplayer.media.api.MediaSearchResult;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 媒体库倒排索引：文件名与上下文（目录、容器、编码、分辨率）分词后建立 词 → 文档编号 的有序倒排表
+ * 有序词典支持前缀匹配（边输入边搜索），无前缀命中时回退为编辑距离1的模糊匹配；
+ * 分面取值各自维护文档位图，过滤与计数均为位运算；条目增删时增量更新
+ * 读写锁保护：搜索可并发，更新互斥
+ */
+final class MediaSearchIndex {
+    private static final String UNKNOWN = "unknown";
+    private static final String[] FACETS = {
+            MediaSearchQuery.FACET_CONTAINER, MediaSearchQuery.FACET_VIDEO_CODEC, MediaSearchQuery.FACET_AUDIO_CODEC,
+            MediaSearchQuery.FACET_RESOLUTION, MediaSearchQuery.FACET_DURATION};
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> docIds = new HashMap<>();
+    private final Deque<Integer> freeIds = new ArrayDeque<>();
+    private MediaInfo[] docs = new MediaInfo[1024];
+    private int nextId = 0;
+    private final BitSet live = new BitSet();
+
+    private final TreeMap<String, Postings> nameIndex = new TreeMap<>();    // 文件名中的词
+    private final TreeMap<String, Postings> contextIndex = new TreeMap<>(); // 目录、元数据中的词
+    private final Map<String, Map<String, BitSet>> facetIndex = new HashMap<>();
+
+    void put(MediaInfo info) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = docIds.get(info.getPath());
+            if (existing != null) {
+                if (docs[existing] == info) {
+                    return;
+                }
+                unindex(existing);
+            }
+            int id = freeIds.isEmpty() ? nextId++ : freeIds.pop();
+            if (id >= docs.length) {
+                docs = Arrays.copyOf(docs, docs.length * 2);
+            }
+            docs[id] = info;
+            docIds.put(info.getPath(), id);
+            live.set(id);
+            forEachToken(nameOf(info.getPath()), token -> addPosting(nameIndex, token, id));
+            forEachContextToken(info, token -> addPosting(contextIndex, token, id));
+            for (String facet : FACETS) {
+                facetIndex.computeIfAbsent(facet, key -> new HashMap<>())
+                        .computeIfAbsent(facetValue(facet, info), key -> new BitSet()).set(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(String path) {
+        lock.writeLock().lock();
+        try {
+            Integer id = docIds.get(path);
+            if (id != null) {
+                unindex(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            docIds.clear();
+            freeIds.clear();
+            Arrays.fill(docs, null);
+            nextId = 0;
+            live.clear();
+            nameIndex.clear();
+            contextIndex.clear();
+            facetIndex.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 移除文档：按存储的元数据重新分词，从各倒排表中删除
+    private void unindex(int id) {
+        MediaInfo info = docs[id];
+        forEachToken(nameOf(info.getPath()), token -> removePosting(nameIndex, token, id));
+        forEachContextToken(info, token -> removePosting(contextIndex, token, id));
+        for (String facet : FACETS) {
+            Map<String, BitSet> values = facetIndex.get(facet);
+            String value = facetValue(facet, info);
+            BitSet set = values.get(value);
+            set.clear(id);
+            if (set.isEmpty()) {
+                values.remove(value);
+            }
+        }
+        docIds.remove(info.getPath());
+        docs[id] = null;
+        live.clear(id);
+        freeIds.push(id);
+    }
+
+    MediaSearchResult search(MediaSearchQuery query) {
+        lock.readLock().lock();
+        try {
+            BitSet hits = (BitSet) live.clone();
+            List<BitSet> nameHits = new ArrayList<>();
+            Set<String> tokens = new LinkedHashSet<>();
+            forEachToken(query.getText(), tokens::add);
+            for (String token : tokens) {
+                BitSet inName = new BitSet();
+                BitSet matched = new BitSet();
+                collectPrefix(nameIndex, token, inName);
+                matched.or(inName);
+                collectPrefix(contextIndex, token, matched);
+                if (matched.isEmpty() && token.length() >= 3) {
+                    collectFuzzy(nameIndex, token, inName);
+                    matched.or(inName);
+                    collectFuzzy(contextIndex, token, matched);
+                }
+                hits.and(matched);
+                nameHits.add(inName);
+            }
+            for (Map.Entry<String, String> filter : query.getFilters().entrySet()) {
+                BitSet values = facetIndex.getOrDefault(filter.getKey(), Map.of()).get(filter.getValue());
+                if (values == null) {
+                    hits.clear();
+                    break;
+                }
+                hits.and(values);
+            }
+            if (query.getMinDurationMs() > 0 || query.getMaxDurationMs() < Long.MAX_VALUE) {
+                for (int id = hits.nextSetBit(0); id >= 0; id = hits.nextSetBit(id + 1)) {
+                    long duration = docs[id].getDurationMs();
+                    if (duration < query.getMinDurationMs() || duration > query.getMaxDurationMs()) {
+                        hits.clear(id);
+                    }
+                }
+            }
+            return new MediaSearchResult(topHits(hits, nameHits, query.getLimit()), hits.cardinality(), facetCounts(hits));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 相关度：文件名命中的查询词数量，相同时按路径排序；用大小为limit的堆取前N条
+    private List<MediaInfo> topHits(BitSet hits, List<BitSet> nameHits, int limit) {
+        if (limit == 0) {
+            return List.of();
+        }
+        Comparator<int[]> order = Comparator.<int[]>comparingInt(hit -> hit[1]).reversed()
+                .thenComparing(hit -> docs[hit[0]].getPath());
+        PriorityQueue<int[]> top = new PriorityQueue<>(order.reversed());
+        for (int id = hits.nextSetBit(0); id >= 0; id = hits.nextSetBit(id + 1)) {
+            int score = 0;
+            for (BitSet inName : nameHits) {
+                if (inName.get(id)) {
+                    score++;
+                }
+            }
+            int[] hit = {id, score};
+            if (top.size() < limit) {
+                top.add(hit);
+            } else if (order.compare(hit, top.peek()) < 0) {
+                top.poll();
+                top.add(hit);
+            }
+        }
+        List<int[]> sorted = new ArrayList<>(top);
+        sorted.sort(order);
+        List<MediaInfo> items = new ArrayList<>(sorted.size());
+        sorted.forEach(hit -> items.add(docs[hit[0]]));
+        return items;
+    }
+
+    private Map<String, Map<String, Integer>> facetCounts(BitSet hits) {
+        Map<String, Map<String, Integer>> counts = new HashMap<>();
+        for (String facet : FACETS) {
+            Map<String, Integer> valueCounts = new HashMap<>();
+            facetIndex.getOrDefault(facet, Map.of()).forEach((value, docsWithValue) -> {
+                BitSet intersection = (BitSet) docsWithValue.clone();
+                intersection.and(hits);
+                int count = intersection.cardinality();
+                if (count > 0) {
+                    valueCounts.put(value, count);
+                }
+            });
+            counts.put(facet, Map.copyOf(valueCounts));
+        }
+        return counts;
+    }
+
+    private static void collectPrefix(TreeMap<String, Postings> index, String prefix, BitSet target) {
+        for (Postings postings : index.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            postings.addTo(target);
+        }
+    }
+
+    // 模糊匹配：仅比较首字符相同、长度相差不超过1的词（一次替换/插入/删除/相邻对调）
+    private static void collectFuzzy(TreeMap<String, Postings> index, String token, BitSet target) {
+        String first = token.substring(0, 1);
+        NavigableMap<String, Postings> candidates = index.subMap(first, true, first + Character.MAX_VALUE, false);
+        for (Map.Entry<String, Postings> entry : candidates.entrySet()) {
+            String word = entry.getKey();
+            if (Math.abs(word.length() - token.length()) <= 1 && withinOneEdit(word, token)) {
+                entry.getValue().addTo(target);
+            }
+        }
+    }
+
+    static boolean withinOneEdit(String a, String b) {
+        if (a.length() > b.length()) {
+            String swap = a;
+            a = b;
+            b = swap;
+        }
+        if (b.length() - a.length() > 1) {
+            return false;
+        }
+        boolean sameLength = a.length() == b.length();
+        boolean edited = false;
+        for (int i = 0, j = 0; i < a.length(); j++) {
+            if (a.charAt(i) == b.charAt(j)) {
+                i++;
+                continue;
+            }
+            if (edited) {
+                return false;
+            }
+            edited = true;
+            if (sameLength && i + 1 < a.length() && a.charAt(i) == b.charAt(j + 1) && a.charAt(i + 1) == b.charAt(j)) {
+                i += 2; // 相邻字符对调
+                j++;
+            } else if (sameLength) {
+                i++; // 替换；长度不同时跳过较长串的一个字符（插入/删除）
+            }
+        }
+        return true;
+    }
+
+    private static void addPosting(TreeMap<String, Postings> index, String token, int id) {
+        index.computeIfAbsent(token, key -> new Postings()).add(id);
+    }
+
+    private static void removePosting(TreeMap<String, Postings> index, String token, int id) {
+        Postings postings = index.get(token);
+        if (postings != null && postings.remove(id) && postings.size == 0) {
+            index.remove(token);
+        }
+    }
+
+    // ---------------------- 分词与分面取值 ----------------------
+
+    private static String nameOf(String path) {
+        int start = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\')) + 1;
+        int end = path.lastIndexOf('.');
+        return path.substring(start, end > start ? end : path.length());
+    }
+
+    private static void forEachContextToken(MediaInfo info, Consumer<String> consumer) {
+        String path = info.getPath();
+        int nameStart = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\')) + 1;
+        forEachToken(path.substring(0, nameStart), consumer); // 目录
+        int dot = path.lastIndexOf('.');
+        if (dot >= nameStart) {
+            forEachToken(path.substring(dot + 1), consumer); // 扩展名
+        }
+        forEachToken(info.getContainer(), consumer);
+        forEachToken(info.getVideoCodec(), consumer);
+        forEachToken(info.getAudioCodec(), consumer);
+        String resolution = resolutionClass(info);
+        if (!UNKNOWN.equals(resolution)) {
+            forEachToken(resolution, consumer);
+        }
+    }
+
+    /**
+     * 分词：小写，字母数字连续段为一个词；汉字/假名等表意字符逐字成词（同一文本中重复的词只输出一次）
+     */
+    static void forEachToken(String text, Consumer<String> consumer) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        Set<String> emitted = new LinkedHashSet<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isIdeographic(codePoint) || isKana(codePoint)) {
+                flush(current, emitted);
+                emitted.add(new String(Character.toChars(codePoint)));
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                current.appendCodePoint(Character.toLowerCase(codePoint));
+            } else {
+                flush(current, emitted);
+            }
+        }
+        flush(current, emitted);
+        emitted.forEach(consumer);
+    }
+
+    private static boolean isKana(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HIRAGANA || script == Character.UnicodeScript.KATAKANA;
+    }
+
+    private static void flush(StringBuilder current, Set<String> emitted) {
+        if (current.length() > 0) {
+            emitted.add(current.toString().toLowerCase(Locale.ROOT));
+            current.setLength(0);
+        }
+    }
+
+    static String facetValue(String facet, MediaInfo info) {
+        switch (facet) {
+            case MediaSearchQuery.FACET_CONTAINER:
+                return orUnknown(info.getContainer());
+            case MediaSearchQuery.FACET_VIDEO_CODEC:
+                return orUnknown(info.getVideoCodec());
+            case MediaSearchQuery.FACET_AUDIO_CODEC:
+                return orUnknown(info.getAudioCodec());
+            case MediaSearchQuery.FACET_RESOLUTION:
+                return resolutionClass(info);
+            case MediaSearchQuery.FACET_DURATION:
+                return durationClass(info.getDurationMs());
+            default:
+                return UNKNOWN;
+        }
+    }
+
+    private static String orUnknown(String value) {
+        return value.isEmpty() ? UNKNOWN : value;
+    }
+
+    private static String resolutionClass(MediaInfo info) {
+        int height = Math.min(info.getWidth(), info.getHeight()) > 0 ? info.getHeight() : 0;
+        if (height >= 2160) {
+            return "4K";
+        } else if (height >= 1080) {
+            return "1080p";
+        } else if (height >= 720) {
+            return "720p";
+        } else if (height > 0) {
+            return "SD";
+        }
+        return UNKNOWN;
+    }
+
+    private static String durationClass(long durationMs) {
+        if (durationMs <= 0) {
+            return UNKNOWN;
+        } else if (durationMs < 5 * 60_000L) {
+            return "short";
+        } else if (durationMs < 20 * 60_000L) {
+            return "medium";
+        } else if (durationMs < 60 * 60_000L) {
+            return "long";
+        }
+        return "feature";
+    }
+
+    // 倒排表：有序int数组（文档编号多为递增分配，追加为主）
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size = 0;
+
+        void add(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        void addTo(BitSet target) {
+            for (int i = 0; i < size; i++) {
+                target.set(ids[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.multimediaplayer.media;
+
+import org.slf4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 播放历史存储：路径→(最后位置, 时间戳)的LRU哈希表，超过容量淘汰最久未访问的条目
+ * 写入先进入内存队列，由后台线程批量追加到日志文件；日志增长到一定规模后按当前内容压缩重写
+ * 日志行格式：时间戳\t位置\t路径
+ */
+class PlayHistoryStore implements AutoCloseable {
+    private final Logger logger;
+    private final Path logFile;
+    private final int capacity;
+    private final Map<String, HistoryEntry> entries;
+    private final ScheduledExecutorService flushExecutor;
+
+    private List<HistoryEntry> pendingWrites = new ArrayList<>();
+    private int appendedSinceCompaction = 0;
+    private boolean loaded = false;
+
+    PlayHistoryStore(Logger logger, Path logFile, int capacity, long flushIntervalSeconds) {
+        this.logger = logger;
+        this.logFile = logFile;
+        this.capacity = Math.max(1, capacity);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, HistoryEntry> eldest) {
+                return size() > PlayHistoryStore.this.capacity;
+            }
+        };
+        this.flushExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "play-history-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, flushIntervalSeconds);
+        this.flushExecutor.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.SECONDS);
+    }
+
+    // 播放历史条目（不可变）
+    private static final class HistoryEntry {
+        private final String path;
+        private final long position;
+        private final long timestamp;
+
+        private HistoryEntry(String path, long position, long timestamp) {
+            this.path = path;
+            this.position = position;
+            this.timestamp = timestamp;
+        }
+    }
+
+    synchronized void record(String mediaPath, long position) {
+        ensureLoaded();
+        HistoryEntry entry = new HistoryEntry(mediaPath, position, System.currentTimeMillis());
+        entries.put(mediaPath, entry);
+        pendingWrites.add(entry);
+    }
+
+    synchronized long getLastPosition(String mediaPath) {
+        ensureLoaded();
+        HistoryEntry entry = entries.get(mediaPath);
+        return entry == null ? 0 : entry.position;
+    }
+
+    // 首次访问时回放日志（LRU容量在回放过程中同样生效）
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!Files.isRegularFile(logFile)) {
+            return;
+        }
+        int lines = 0;
+        try (BufferedReader reader = Files.newBufferedReader(logFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int first = line.indexOf('\t');
+                int second = first < 0 ? -1 : line.indexOf('\t', first + 1);
+                if (second < 0) {
+                    continue; // 进程中断导致的半行，忽略
+                }
+                try {
+                    long timestamp = Long.parseLong(line.substring(0, first));
+                    long position = Long.parseLong(line.substring(first + 1, second));
+                    String path = line.substring(second + 1);
+                    if (path.isEmpty()) {
+                        continue;
+                    }
+                    entries.put(path, new HistoryEntry(path, position, timestamp));
+                    lines++;
+                } catch (NumberFormatException e) {
+                    // 损坏行跳过
+                }
+            }
+        } catch (IOException e) {
+            logger.error("读取播放历史失败：{}", logFile, e);
+        }
+        appendedSinceCompaction = lines;
+        logger.info("播放历史加载完成：{}条记录，保留{}条", lines, entries.size());
+    }
+
+    /**
+     * 将待写入的记录批量追加到日志（后台线程定时调用，关闭时同步调用）
+     */
+    void flush() {
+        List<HistoryEntry> batch;
+        boolean compact;
+        synchronized (this) {
+            if (pendingWrites.isEmpty()) {
+                return;
+            }
+            batch = pendingWrites;
+            pendingWrites = new ArrayList<>();
+            appendedSinceCompaction += batch.size();
+            compact = appendedSinceCompaction > capacity * 2;
+        }
+
+        try {
+            if (compact) {
+                compact();
+                return;
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (HistoryEntry entry : batch) {
+                    writeEntry(writer, entry);
+                }
+            }
+        } catch (IOException e) {
+            logger.error("写入播放历史失败", e);
+        }
+    }
+
+    // 压缩：按LRU顺序重写当前保留的条目，替换旧日志
+    private void compact() throws IOException {
+        List<HistoryEntry> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(entries.values());
+            appendedSinceCompaction = snapshot.size();
+        }
+        Path tempFile = logFile.resolveSibling(logFile.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+            for (HistoryEntry entry : snapshot) {
+                writeEntry(writer, entry);
+            }
+        }
+        Files.move(tempFile, logFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("播放历史日志已压缩：{}条", snapshot.size());
+    }
+
+    private static void writeEntry(BufferedWriter writer, HistoryEntry entry) throws IOException {
+        writer.write(Long.toString(entry.timestamp));
+        writer.write('\t');
+        writer.write(Long.toString(entry.position));
+        writer.write('\t');
+        writer.write(entry.path);
+        writer.newLine();
+    }
+
+    @Override
+    public void close() {
+        flushExecutor.shutdown();
+        try {
+            flushExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+}
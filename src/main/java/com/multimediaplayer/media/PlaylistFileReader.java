@@ -0,0 +1,200 @@
+package com.multimediaplayer.media;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 播放列表文件流式解析：逐行读取.m3u/.m3u8/.pls，XSPF使用StAX逐个读取<location>
+ * 相对路径按播放列表所在目录解析，网络地址原样保留；无法解析的条目跳过
+ * 编码：.m3u8与带BOM的文件按UTF-8；其他.m3u/.pls先按UTF-8读取，不是合法UTF-8时改用系统编码（系统为UTF-8时用Latin-1）
+ * 无法解码的字节替换为U+FFFD，单个条目的编码问题不会中断整个导入
+ */
+final class PlaylistFileReader {
+
+    private PlaylistFileReader() {
+    }
+
+    static List<String> read(Path path) throws IOException {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        Path baseDir = path.toAbsolutePath().getParent();
+        List<String> entries = new ArrayList<>();
+        if (name.endsWith(".xspf")) {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(path), 64 * 1024)) {
+                readXspf(in, baseDir, entries);
+            }
+            return entries;
+        }
+        if (!name.endsWith(".m3u") && !name.endsWith(".m3u8") && !name.endsWith(".pls")) {
+            throw new IOException("不支持的播放列表格式：" + name);
+        }
+        if (name.endsWith(".m3u8") || hasUtf8Bom(path)) {
+            readText(path, name, decoder(StandardCharsets.UTF_8, CodingErrorAction.REPLACE), baseDir, entries);
+            return entries;
+        }
+        try {
+            readText(path, name, decoder(StandardCharsets.UTF_8, CodingErrorAction.REPORT), baseDir, entries);
+        } catch (CharacterCodingException e) {
+            entries.clear(); // 旧式播放列表：按本地编码重新读取
+            readText(path, name, decoder(legacyCharset(), CodingErrorAction.REPLACE), baseDir, entries);
+        }
+        return entries;
+    }
+
+    private static void readText(Path path, String name, CharsetDecoder decoder, Path baseDir, List<String> entries)
+            throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(path), decoder), 64 * 1024)) {
+            if (name.endsWith(".pls")) {
+                readPls(reader, baseDir, entries);
+            } else {
+                readM3u(reader, baseDir, entries);
+            }
+        }
+    }
+
+    private static CharsetDecoder decoder(Charset charset, CodingErrorAction action) {
+        return charset.newDecoder().onMalformedInput(action).onUnmappableCharacter(action);
+    }
+
+    private static boolean hasUtf8Bom(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] head = in.readNBytes(3);
+            return head.length == 3 && (head[0] & 0xFF) == 0xEF && (head[1] & 0xFF) == 0xBB && (head[2] & 0xFF) == 0xBF;
+        }
+    }
+
+    // 旧式.m3u/.pls约定使用系统编码；系统编码为UTF-8时（已读取失败）退回Latin-1，任何字节都能解码
+    private static Charset legacyCharset() {
+        String nativeEncoding = System.getProperty("native.encoding");
+        Charset charset = Charset.defaultCharset();
+        try {
+            if (nativeEncoding != null) {
+                charset = Charset.forName(nativeEncoding);
+            }
+        } catch (IllegalArgumentException e) {
+            // 不支持的编码名：使用默认编码
+        }
+        return StandardCharsets.UTF_8.equals(charset) ? StandardCharsets.ISO_8859_1 : charset;
+    }
+
+    // ---------------------- M3U / M3U8 ----------------------
+    // 非空且不以#开头的行即为条目（#EXTM3U、#EXTINF等扩展信息忽略）
+    private static void readM3u(BufferedReader reader, Path baseDir, List<String> entries) throws IOException {
+        String line;
+        boolean firstLine = true;
+        while ((line = reader.readLine()) != null) {
+            if (firstLine) {
+                line = stripBom(line);
+                firstLine = false;
+            }
+            line = line.trim();
+            if (line.isEmpty() || line.charAt(0) == '#') {
+                continue;
+            }
+            addEntry(line, baseDir, entries);
+        }
+    }
+
+    // ---------------------- PLS ----------------------
+    // 仅取FileN=条目，按文件中出现的顺序
+    private static void readPls(BufferedReader reader, Path baseDir, List<String> entries) throws IOException {
+        String line;
+        boolean firstLine = true;
+        while ((line = reader.readLine()) != null) {
+            if (firstLine) {
+                line = stripBom(line);
+                firstLine = false;
+            }
+            line = line.trim();
+            if (line.length() > 4 && line.regionMatches(true, 0, "File", 0, 4)) {
+                int equals = line.indexOf('=');
+                if (equals > 4) {
+                    addEntry(line.substring(equals + 1).trim(), baseDir, entries);
+                }
+            }
+        }
+    }
+
+    // ---------------------- XSPF ----------------------
+    private static void readXspf(InputStream in, Path baseDir, List<String> entries) throws IOException {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false); // 不解析外部实体
+        try {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            try {
+                boolean inTrack = false;
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamReader.START_ELEMENT) {
+                        String element = reader.getLocalName();
+                        if ("track".equals(element)) {
+                            inTrack = true;
+                        } else if (inTrack && "location".equals(element)) {
+                            addUriEntry(reader.getElementText().trim(), baseDir, entries);
+                            inTrack = false; // 每个track只取第一个location
+                        }
+                    } else if (event == XMLStreamReader.END_ELEMENT && "track".equals(reader.getLocalName())) {
+                        inTrack = false;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("XSPF解析失败：" + e.getMessage(), e);
+        }
+    }
+
+    // 条目解析为本地绝对路径；file:地址转为路径，其他协议地址原样保留
+    private static void addEntry(String location, Path baseDir, List<String> entries) {
+        if (location.isEmpty()) {
+            return;
+        }
+        try {
+            if (location.regionMatches(true, 0, "file:", 0, 5)) {
+                entries.add(Paths.get(URI.create(location)).toString());
+            } else if (location.indexOf("://") > 0) {
+                entries.add(location);
+            } else {
+                Path entry = Paths.get(location);
+                entries.add((entry.isAbsolute() || baseDir == null ? entry : baseDir.resolve(entry)).normalize().toString());
+            }
+        } catch (IllegalArgumentException e) {
+            // 非法路径或地址，跳过
+        }
+    }
+
+    // XSPF的location为URI（相对地址按播放列表所在目录解析，含百分号编码）
+    private static void addUriEntry(String location, Path baseDir, List<String> entries) {
+        if (location.isEmpty()) {
+            return;
+        }
+        try {
+            URI uri = baseDir == null ? URI.create(location) : baseDir.toUri().resolve(location);
+            entries.add("file".equalsIgnoreCase(uri.getScheme()) ? Paths.get(uri).toString() : uri.toString());
+        } catch (IllegalArgumentException e) {
+            // 非法地址，跳过
+        }
+    }
+
+    private static String stripBom(String line) {
+        return !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+    }
+}
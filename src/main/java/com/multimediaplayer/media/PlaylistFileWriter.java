@@ -0,0 +1,159 @@
+package com.multimediaplayer.media;
+
+import com.multimediaplayer.media.api.MediaInfo;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * 播放列表文件导出：按扩展名写出.m3u/.m3u8/.pls/.xspf
+ * 条目逐个直接写入缓冲输出流，不拼接整文件内容；先写临时文件再原子替换
+ * 时长、标题来自媒体库元数据（未扫描的条目时长记为-1，标题取文件名）
+ */
+final class PlaylistFileWriter {
+
+    private PlaylistFileWriter() {
+    }
+
+    static void write(Path path, Iterable<String> entries, Function<String, MediaInfo> metadata) throws IOException {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (!name.endsWith(".m3u") && !name.endsWith(".m3u8") && !name.endsWith(".pls") && !name.endsWith(".xspf")) {
+            throw new IOException("不支持的播放列表格式：" + name);
+        }
+        Path tempFile = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            if (name.endsWith(".xspf")) {
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile), 64 * 1024)) {
+                    writeXspf(out, entries, metadata);
+                }
+            } else {
+                try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                    if (name.endsWith(".pls")) {
+                        writePls(writer, entries, metadata);
+                    } else {
+                        writeM3u(writer, entries, metadata);
+                    }
+                }
+            }
+            Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static void writeM3u(BufferedWriter writer, Iterable<String> entries,
+                                 Function<String, MediaInfo> metadata) throws IOException {
+        writer.write("#EXTM3U");
+        writer.newLine();
+        for (String entry : entries) {
+            writer.write("#EXTINF:");
+            writer.write(Long.toString(durationSeconds(metadata.apply(entry))));
+            writer.write(',');
+            writeTitle(writer, entry);
+            writer.newLine();
+            writer.write(entry);
+            writer.newLine();
+        }
+    }
+
+    private static void writePls(BufferedWriter writer, Iterable<String> entries,
+                                 Function<String, MediaInfo> metadata) throws IOException {
+        writer.write("[playlist]");
+        writer.newLine();
+        int number = 0;
+        for (String entry : entries) {
+            String index = Integer.toString(++number);
+            writer.write("File");
+            writer.write(index);
+            writer.write('=');
+            writer.write(entry);
+            writer.newLine();
+            writer.write("Title");
+            writer.write(index);
+            writer.write('=');
+            writeTitle(writer, entry);
+            writer.newLine();
+            writer.write("Length");
+            writer.write(index);
+            writer.write('=');
+            writer.write(Long.toString(durationSeconds(metadata.apply(entry))));
+            writer.newLine();
+        }
+        writer.write("NumberOfEntries=");
+        writer.write(Integer.toString(number));
+        writer.newLine();
+        writer.write("Version=2");
+        writer.newLine();
+    }
+
+    private static void writeXspf(OutputStream out, Iterable<String> entries,
+                                  Function<String, MediaInfo> metadata) throws IOException {
+        try {
+            XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+            writer.writeStartDocument("UTF-8", "1.0");
+            writer.writeStartElement("playlist");
+            writer.writeDefaultNamespace("http://xspf.org/ns/0/");
+            writer.writeAttribute("version", "1");
+            writer.writeStartElement("trackList");
+            for (String entry : entries) {
+                writer.writeStartElement("track");
+                writer.writeStartElement("location");
+                writer.writeCharacters(toLocation(entry));
+                writer.writeEndElement();
+                MediaInfo info = metadata.apply(entry);
+                if (info != null && info.getDurationMs() > 0) {
+                    writer.writeStartElement("duration"); // XSPF时长单位为毫秒
+                    writer.writeCharacters(Long.toString(info.getDurationMs()));
+                    writer.writeEndElement();
+                }
+                writer.writeEndElement();
+            }
+            writer.writeEndElement();
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("XSPF写入失败：" + e.getMessage(), e);
+        }
+    }
+
+    private static long durationSeconds(MediaInfo info) {
+        return info == null || info.getDurationMs() <= 0 ? -1 : (info.getDurationMs() + 500) / 1000;
+    }
+
+    // 标题：文件名去掉扩展名（直接写入区间，不创建子串）
+    private static void writeTitle(BufferedWriter writer, String entry) throws IOException {
+        int start = Math.max(entry.lastIndexOf('/'), entry.lastIndexOf('\\')) + 1;
+        int end = entry.lastIndexOf('.');
+        if (end <= start) {
+            end = entry.length();
+        }
+        writer.write(entry, start, end - start);
+    }
+
+    // 本地路径转为file:///地址（不访问文件系统），网络地址原样保留
+    private static String toLocation(String entry) {
+        if (entry.indexOf("://") > 0) {
+            return entry;
+        }
+        String path = entry.replace('\\', '/');
+        try {
+            return new URI("file", "", path.startsWith("/") ? path : "/" + path, null).toASCIIString();
+        } catch (URISyntaxException e) {
+            return entry;
+        }
+    }
+}
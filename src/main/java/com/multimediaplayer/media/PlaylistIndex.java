@@ -0,0 +1,385 @@
+package com.multimediaplayer.media;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * 播放列表索引：路径→顺序标签的哈希表 + 以标签为键、按子树大小增强的持久化Treap
+ * 成员判断O(1)；按位置读取、插入、删除、移动O(log n)；节点不可变（路径复制），
+ * 任一时刻的根节点即为一份完整快照，获取快照无需复制
+ * 顺序标签为稀疏的long值，插入到两个相邻标签之间；无空隙时只对插入点附近足够稀疏的区间重新编号（均摊O(log² n)）
+ * 非线程安全：写操作由调用方加锁，快照可在任意线程读取
+ */
+final class PlaylistIndex {
+    private static final int LABEL_BITS = 62;
+    private static final long LABEL_LIMIT = 1L << LABEL_BITS; // 标签取值范围[0, 2^62)
+    private static final long INITIAL_LABEL = 1L << 40;       // 首个条目的标签，前方留出插入空间
+    private static final long GAP = 1L << 20;                 // 首尾追加时的标签间距
+
+    private static final class Node {
+        final long label;
+        final String path;
+        final int priority;
+        final Node left;
+        final Node right;
+        final int size;
+
+        Node(long label, String path, int priority, Node left, Node right) {
+            this.label = label;
+            this.path = path;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+            this.size = 1 + size(left) + size(right);
+        }
+
+        Node withChildren(Node left, Node right) {
+            return new Node(label, path, priority, left, right);
+        }
+    }
+
+    private final Map<String, Long> labels = new HashMap<>();
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+
+    int size() {
+        return size(root);
+    }
+
+    boolean contains(String path) {
+        return labels.containsKey(path);
+    }
+
+    /**
+     * 插入到指定位置（0..size）
+     * @return 路径已存在时返回false
+     */
+    boolean insert(String path, int index) {
+        if (labels.containsKey(path)) {
+            return false;
+        }
+        long label = allocateLabel(Math.max(0, Math.min(index, size())));
+        root = insert(root, new Node(label, path, random.nextInt(), null, null));
+        labels.put(path, label);
+        return true;
+    }
+
+    boolean add(String path) {
+        return insert(path, size());
+    }
+
+    /**
+     * 批量追加（跳过已存在和重复的路径）：新条目直接构建为平衡子树再与原树合并，O(k log k)
+     * @return 实际追加的路径
+     */
+    List<String> addAll(List<String> paths) {
+        int size = size();
+        long first = size == 0 ? INITIAL_LABEL : select(root, size - 1).label + GAP;
+        if (first > LABEL_LIMIT - GAP * (long) paths.size()) {
+            // 标签空间不足：逐条追加（必要时局部重新编号）
+            List<String> accepted = new ArrayList<>();
+            for (String path : paths) {
+                if (path != null && add(path)) {
+                    accepted.add(path);
+                }
+            }
+            return accepted;
+        }
+        List<String> accepted = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            // 登记标签的同时完成去重（已存在或本批次重复）
+            if (path != null && labels.putIfAbsent(path, first + accepted.size() * GAP) == null) {
+                accepted.add(path);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return accepted;
+        }
+
+        // 优先级：随机值降序后按层序分配，父节点优先级不低于子节点，满足堆序
+        int[] priorities = new int[accepted.size()];
+        int[] sorted = random.ints(accepted.size()).sorted().toArray();
+        int next = sorted.length;
+        Deque<int[]> ranges = new ArrayDeque<>();
+        ranges.add(new int[]{0, accepted.size() - 1});
+        while (!ranges.isEmpty()) {
+            int[] range = ranges.poll();
+            if (range[0] > range[1]) {
+                continue;
+            }
+            int mid = (range[0] + range[1]) >>> 1;
+            priorities[mid] = sorted[--next];
+            ranges.add(new int[]{range[0], mid - 1});
+            ranges.add(new int[]{mid + 1, range[1]});
+        }
+        root = merge(root, build(accepted, priorities, first, 0, accepted.size() - 1));
+        return accepted;
+    }
+
+    private Node build(List<String> paths, int[] priorities, long firstLabel, int from, int to) {
+        if (from > to) {
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        return new Node(firstLabel + mid * GAP, paths.get(mid), priorities[mid],
+                build(paths, priorities, firstLabel, from, mid - 1), build(paths, priorities, firstLabel, mid + 1, to));
+    }
+
+    boolean remove(String path) {
+        Long label = labels.remove(path);
+        if (label == null) {
+            return false;
+        }
+        root = delete(root, label);
+        return true;
+    }
+
+    boolean move(String path, int index) {
+        if (!remove(path)) {
+            return false;
+        }
+        return insert(path, index);
+    }
+
+    // 路径所在位置，不存在返回-1
+    int indexOf(String path) {
+        Long label = labels.get(path);
+        return label == null ? -1 : rank(root, label);
+    }
+
+    String get(int index) {
+        return select(root, index).path;
+    }
+
+    // 当前内容的只读快照（不复制，后续修改不影响已获取的快照）
+    List<String> snapshot() {
+        return new Snapshot(root);
+    }
+
+    void clear() {
+        labels.clear();
+        root = null;
+    }
+
+    // 为位置index分配标签：在前后相邻标签之间取中点，无空隙时对局部区间重新编号后重试
+    private long allocateLabel(int index) {
+        int size = size();
+        if (size == 0) {
+            return INITIAL_LABEL;
+        }
+        long pivot;
+        if (index == size) {
+            long last = select(root, size - 1).label;
+            if (LABEL_LIMIT - last > 1) {
+                return last + Math.min(GAP, (LABEL_LIMIT - last) / 2);
+            }
+            pivot = last;
+        } else if (index == 0) {
+            long first = select(root, 0).label;
+            if (first > 0) {
+                return first - Math.min(GAP, (first + 1) / 2);
+            }
+            pivot = first;
+        } else {
+            long low = select(root, index - 1).label;
+            long high = select(root, index).label;
+            if (high - low > 1) {
+                return low + (high - low) / 2;
+            }
+            pivot = low;
+        }
+        relabelAround(pivot);
+        return allocateLabel(index);
+    }
+
+    /**
+     * 局部重新编号：从包含pivot的最小对齐区间开始逐级放大，找到条目密度低于阈值的区间
+     * （区间大小2^i内条目数 < (4/3)^i），将其中条目均匀分布到整个区间；顺序、树结构与优先级不变
+     */
+    private void relabelAround(long pivot) {
+        for (int level = 1; ; level++) {
+            long span = 1L << level;
+            long base = pivot & -span;
+            int count = countBelow(root, base + span) - countBelow(root, base);
+            if (level >= LABEL_BITS || count + 1 < Math.pow(4.0 / 3.0, level)) {
+                Node[] left = split(root, base);
+                Node[] range = split(left[1], base + span);
+                long spacing = span / count;
+                Node relabeled = relabel(range[0], base + spacing / 2, spacing, new int[1]);
+                root = merge(merge(left[0], relabeled), range[1]);
+                return;
+            }
+        }
+    }
+
+    // 按中序为子树重新分配标签（路径复制，结构与优先级保持不变）
+    private Node relabel(Node node, long firstLabel, long spacing, int[] position) {
+        if (node == null) {
+            return null;
+        }
+        Node left = relabel(node.left, firstLabel, spacing, position);
+        long label = firstLabel + position[0]++ * spacing;
+        labels.put(node.path, label);
+        Node right = relabel(node.right, firstLabel, spacing, position);
+        return new Node(label, node.path, node.priority, left, right);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (inserted.priority > node.priority) {
+            Node[] parts = split(node, inserted.label);
+            return inserted.withChildren(parts[0], parts[1]);
+        }
+        if (inserted.label < node.label) {
+            return node.withChildren(insert(node.left, inserted), node.right);
+        }
+        return node.withChildren(node.left, insert(node.right, inserted));
+    }
+
+    // 拆分为标签小于label与不小于label的两部分
+    private static Node[] split(Node node, long label) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (node.label < label) {
+            Node[] parts = split(node.right, label);
+            parts[0] = node.withChildren(node.left, parts[0]);
+            return parts;
+        }
+        Node[] parts = split(node.left, label);
+        parts[1] = node.withChildren(parts[1], node.right);
+        return parts;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            return left.withChildren(left.left, merge(left.right, right));
+        }
+        return right.withChildren(merge(left, right.left), right.right);
+    }
+
+    private static Node delete(Node node, long label) {
+        if (node == null) {
+            return null;
+        }
+        if (label < node.label) {
+            return node.withChildren(delete(node.left, label), node.right);
+        }
+        if (label > node.label) {
+            return node.withChildren(node.left, delete(node.right, label));
+        }
+        return merge(node.left, node.right);
+    }
+
+    // 标签小于label的条目数
+    private static int countBelow(Node node, long label) {
+        int count = 0;
+        while (node != null) {
+            if (node.label < label) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    private static int rank(Node node, long label) {
+        int rank = 0;
+        while (node != null) {
+            if (label < node.label) {
+                node = node.left;
+            } else if (label > node.label) {
+                rank += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return rank + size(node.left);
+            }
+        }
+        return -1;
+    }
+
+    private static Node select(Node node, int index) {
+        if (index < 0 || index >= size(node)) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size(node));
+        }
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node;
+            }
+        }
+    }
+
+    // 快照视图：get按位置O(log n)，遍历为中序O(n)
+    private static final class Snapshot extends AbstractList<String> {
+        private final Node root;
+
+        private Snapshot(Node root) {
+            this.root = root;
+        }
+
+        @Override
+        public String get(int index) {
+            return select(root, index).path;
+        }
+
+        @Override
+        public int size() {
+            return PlaylistIndex.size(root);
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new Iterator<>() {
+                private final Deque<Node> stack = new ArrayDeque<>();
+                private Node next = root;
+
+                @Override
+                public boolean hasNext() {
+                    return next != null || !stack.isEmpty();
+                }
+
+                @Override
+                public String next() {
+                    while (next != null) {
+                        stack.push(next);
+                        next = next.left;
+                    }
+                    if (stack.isEmpty()) {
+                        throw new NoSuchElementException();
+                    }
+                    Node node = stack.pop();
+                    next = node.right;
+                    return node.path;
+                }
+            };
+        }
+    }
+}
@@ -1,56 +1,172 @@
 package com.multimediaplayer.media;
 
+import com.multimediaplayer.extension.api.ConfigService;
+import com.multimediaplayer.media.api.RepeatMode;
 import org.slf4j.Logger;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.Locale;
+import java.util.SplittableRandom;
 
 /**
  * 播放列表实现：封装列表CRUD、循环/随机逻辑
- * 内部逻辑不对外暴露
+ * 内部逻辑不对外暴露；列表由PlaylistIndex维护，大列表上的增删改均为O(1)/O(log n)
+ * “当前播放”按路径记录，列表增删/移动后依然指向原条目；当前条目被删除时游标退到前一条，下一首从其后继续
+ * 随机播放由ShuffleEngine提供不重复的随机顺序与播放历史；循环模式作用于自动切换的下一首
+ * 无缝播放的预载通过peekNext预取下一首（不移动游标），实际切换后由moveTo确认
  */
 public class PlaylistManager {
     private final MediaLibrary mediaLibrary;
     private final Logger logger;
-    private final List<String> playlist = new ArrayList<>();
-    private int currentIndex = 0;
+    private final PlaylistIndex playlist = new PlaylistIndex();
+    private volatile List<String> snapshot = playlist.snapshot(); // 最新快照，读取无锁
+    private String currentPath; // 当前播放条目（null表示从列表开头开始）
     private boolean isRandom = false; // 随机播放开关
+    private RepeatMode repeatMode = RepeatMode.ALL;
+    private final ShuffleEngine shuffleEngine;
 
     public PlaylistManager(MediaLibrary mediaLibrary) {
         this.mediaLibrary = mediaLibrary;
         this.logger = mediaLibrary.getAppContext().getGlobalLogger();
 
+        ConfigService configService = mediaLibrary.getAppContext().getModule(ConfigService.class);
+        int historySize = configService.getInt("media.playlist.historySize", 200);
+        this.shuffleEngine = new ShuffleEngine(playlist, historySize, new SplittableRandom());
+        this.isRandom = configService.getBoolean("media.playlist.shuffle", false);
+        this.repeatMode = parseRepeatMode(configService.getConfig("media.playlist.repeat", RepeatMode.ALL.name()));
+        shuffleEngine.reset(null);
     }
 
-    public void add(String mediaPath) {
-        if (!playlist.contains(mediaPath)) {
-            playlist.add(mediaPath);
+    // 循环模式配置：不区分大小写，格式错误时使用默认值ALL（与ConfigService的类型化读取一致）
+    private RepeatMode parseRepeatMode(String value) {
+        try {
+            return RepeatMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            logger.warn("配置值格式错误：{}={}，使用默认值{}", "media.playlist.repeat", value, RepeatMode.ALL);
+            return RepeatMode.ALL;
+        }
+    }
+
+    public synchronized void add(String mediaPath) {
+        if (playlist.add(mediaPath)) {
+            shuffleEngine.onAdded(mediaPath);
+            snapshot = playlist.snapshot();
             logger.info("添加到播放列表：{}", mediaPath);
         }
     }
 
-    public void remove(String mediaPath) {
-        playlist.remove(mediaPath);
-        logger.info("从播放列表移除：{}", mediaPath);
+    // 批量追加：一次发布快照、一条日志
+    public synchronized int addAll(List<String> mediaPaths) {
+        List<String> added = playlist.addAll(mediaPaths);
+        if (!added.isEmpty()) {
+            added.forEach(shuffleEngine::onAdded);
+            snapshot = playlist.snapshot();
+        }
+        logger.info("批量添加到播放列表：{}条（跳过重复{}条）", added.size(), mediaPaths.size() - added.size());
+        return added.size();
+    }
+
+    public synchronized void remove(String mediaPath) {
+        if (mediaPath != null && mediaPath.equals(currentPath)) {
+            int index = playlist.indexOf(mediaPath);
+            currentPath = index > 0 ? playlist.get(index - 1) : null;
+        }
+        if (playlist.remove(mediaPath)) {
+            snapshot = playlist.snapshot();
+            logger.info("从播放列表移除：{}", mediaPath);
+        }
+    }
+
+    // 移动到指定位置（越界时移到首/尾）
+    public synchronized boolean move(String mediaPath, int toIndex) {
+        if (!playlist.move(mediaPath, toIndex)) {
+            return false;
+        }
+        snapshot = playlist.snapshot();
+        logger.info("播放列表移动：{} -> {}", mediaPath, toIndex);
+        return true;
     }
 
+    // 只读快照视图（不复制，后续修改不影响已返回的列表）
     public List<String> getPlaylist() {
-        return new ArrayList<>(playlist); // 返回副本，避免外部修改
+        return snapshot;
     }
 
-    public String getNext() {
-        if (playlist.isEmpty()) {
-            return null;
+    public synchronized void setRandom(boolean random) {
+        if (random && !isRandom) {
+            shuffleEngine.reset(currentPath); // 开启随机：以当前播放为起点开始新的一轮
         }
+        isRandom = random;
+        logger.info("随机播放：{}", random);
+    }
 
-        if (isRandom) {
-            currentIndex = new Random().nextInt(playlist.size());
-        } else {
-            currentIndex = (currentIndex + 1) % playlist.size();
+    public synchronized void setRepeatMode(RepeatMode mode) {
+        repeatMode = mode == null ? RepeatMode.ALL : mode;
+        logger.info("循环模式：{}", repeatMode);
+    }
+
+    // 下一首：单曲循环时重复当前条目；列表末尾（或随机的一轮结束）按循环模式回到开头或返回null
+    public synchronized String getNext() {
+        String nextMedia = peekNext();
+        if (nextMedia == null) {
+            logger.info("播放列表已到末尾");
+            return null;
         }
+        moveTo(nextMedia);
 
-        String nextMedia = playlist.get(currentIndex);
         logger.info("下一首：{}", nextMedia);
         return nextMedia;
     }
+
+    // 预取下一首（不移动游标、不记录随机历史），重复调用结果不变
+    public synchronized String peekNext() {
+        if (playlist.size() == 0) {
+            return null;
+        }
+        if (repeatMode == RepeatMode.ONE && currentPath != null && playlist.contains(currentPath)) {
+            return currentPath;
+        }
+        if (isRandom) {
+            return shuffleEngine.peek(repeatMode == RepeatMode.ALL);
+        }
+        int index = currentPath == null ? -1 : playlist.indexOf(currentPath);
+        if (index + 1 < playlist.size()) {
+            return playlist.get(index + 1);
+        }
+        return repeatMode == RepeatMode.ALL ? playlist.get(0) : null; // 到达末尾
+    }
+
+    // 确认当前播放的条目（实际切换后调用）：移动游标，随机模式下记入播放历史；不在列表中的条目忽略
+    public synchronized void moveTo(String mediaPath) {
+        if (mediaPath == null || mediaPath.equals(currentPath) || !playlist.contains(mediaPath)) {
+            return;
+        }
+        if (isRandom) {
+            shuffleEngine.commit(mediaPath);
+        }
+        currentPath = mediaPath;
+    }
+
+    // 上一首：随机模式沿播放历史后退，顺序模式取前一条
+    public synchronized String getPrevious() {
+        if (playlist.size() == 0) {
+            return null;
+        }
+
+        String previousMedia;
+        if (isRandom) {
+            previousMedia = shuffleEngine.previous();
+        } else {
+            int index = currentPath == null ? 0 : playlist.indexOf(currentPath);
+            if (index > 0) {
+                previousMedia = playlist.get(index - 1);
+            } else {
+                previousMedia = repeatMode == RepeatMode.ALL ? playlist.get(playlist.size() - 1) : null;
+            }
+        }
+        if (previousMedia != null) {
+            currentPath = previousMedia;
+            logger.info("上一首：{}", previousMedia);
+        }
+        return previousMedia;
+    }
 }
@@ -0,0 +1,184 @@
+package com.multimediaplayer.media;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * 随机播放引擎：每一轮是播放列表的一个不重复随机排列，按需逐个抽取（惰性Fisher–Yates）
+ * 虚拟数组 = 本轮开始时的列表快照 + 本轮新增条目，只记录发生过交换的槽位，抽取一首O(log n)、无需预先生成整个排列；
+ * 本轮新增的条目加入未抽取区间，已删除的条目在抽到时跳过；
+ * 已播放条目保存在有限长度的历史中，支持上一首/下一首往返
+ * 预取（peek）抽出的条目暂存为待播放，确认（commit）后才写入历史，预载被丢弃时历史不受影响
+ * 非线程安全：由PlaylistManager加锁调用
+ */
+final class ShuffleEngine {
+    private final PlaylistIndex playlist;
+    private final SplittableRandom random;
+
+    // 当前一轮的虚拟数组
+    private List<String> snapshot = List.of();
+    private final List<String> added = new ArrayList<>();
+    private final Map<Integer, String> swapped = new HashMap<>();
+    private final Set<String> drawn = new HashSet<>();
+    private int cursor = 0; // [0, cursor)已抽取
+    private String previousRoundLast;
+    private String pending; // 已抽取、尚未确认播放的下一首
+
+    // 播放历史（环形缓冲区）
+    private final String[] history;
+    private int historyStart = 0;
+    private int historySize = 0;
+    private int historyPosition = -1; // 当前播放在历史中的位置
+
+    ShuffleEngine(PlaylistIndex playlist, int historyCapacity, SplittableRandom random) {
+        this.playlist = playlist;
+        this.history = new String[Math.max(1, historyCapacity)];
+        this.random = random;
+    }
+
+    /**
+     * 开始新的一轮，当前播放的条目（可为null）视为本轮已播放
+     */
+    void reset(String current) {
+        startRound();
+        pending = null;
+        historyStart = 0;
+        historySize = 0;
+        historyPosition = -1;
+        if (current != null && playlist.contains(current)) {
+            drawn.add(current);
+            appendHistory(current);
+        }
+    }
+
+    void onAdded(String path) {
+        added.add(path);
+    }
+
+    /**
+     * 下一首：先沿历史前进（之前退回过），否则从本轮剩余条目中抽取，并确认为当前播放
+     * @param repeat 本轮抽完后是否开始新一轮
+     */
+    String next(boolean repeat) {
+        String path = peek(repeat);
+        if (path != null) {
+            commit(path);
+        }
+        return path;
+    }
+
+    /**
+     * 预取下一首：不移动历史位置，重复调用返回同一条目，直到commit或条目被删除
+     */
+    String peek(boolean repeat) {
+        for (int position = historyPosition + 1; position < historySize; position++) {
+            String path = historyAt(position);
+            if (playlist.contains(path)) {
+                return path;
+            }
+        }
+        if (pending == null || !playlist.contains(pending)) {
+            pending = draw(repeat);
+        }
+        return pending;
+    }
+
+    // 确认开始播放：历史中已有的条目只移动位置，其余条目追加到历史
+    void commit(String path) {
+        for (int position = historyPosition + 1; position < historySize; position++) {
+            if (historyAt(position).equals(path)) {
+                historyPosition = position;
+                return;
+            }
+        }
+        if (path.equals(pending)) {
+            pending = null;
+        } else {
+            drawn.add(path); // 未经抽取直接播放的条目（如手动选择），本轮不再抽到
+        }
+        appendHistory(path);
+    }
+
+    // 上一首：沿历史后退（跳过已删除的条目），没有更早的记录返回null
+    String previous() {
+        int position = historyPosition;
+        while (position > 0) {
+            String path = historyAt(--position);
+            if (playlist.contains(path)) {
+                historyPosition = position;
+                return path;
+            }
+        }
+        return null;
+    }
+
+    private String draw(boolean repeat) {
+        while (true) {
+            int size = snapshot.size() + added.size();
+            if (cursor >= size) {
+                if (!repeat || playlist.size() == 0) {
+                    return null;
+                }
+                previousRoundLast = historySize > 0 ? historyAt(historySize - 1) : null;
+                startRound();
+                size = snapshot.size();
+            }
+            // Fisher–Yates：从未抽取区间[cursor, size)中等概率选一个，与cursor位置交换
+            int target = cursor + random.nextInt(size - cursor);
+            String candidate = slot(target);
+            if (target != cursor) {
+                swapped.put(target, slot(cursor));
+            }
+            swapped.remove(cursor);
+            cursor++;
+
+            // 新一轮的第一首避免与上一轮最后一首相同：放回未抽取区间，改取另一首
+            if (cursor == 1 && candidate.equals(previousRoundLast) && cursor < size) {
+                int other = cursor + random.nextInt(size - cursor);
+                String replacement = slot(other);
+                swapped.put(other, candidate);
+                candidate = replacement;
+            }
+            if (playlist.contains(candidate) && drawn.add(candidate)) {
+                return candidate;
+            }
+        }
+    }
+
+    private void startRound() {
+        snapshot = playlist.snapshot();
+        added.clear();
+        swapped.clear();
+        drawn.clear();
+        cursor = 0;
+    }
+
+    private String slot(int index) {
+        String path = swapped.get(index);
+        if (path != null) {
+            return path;
+        }
+        return index < snapshot.size() ? snapshot.get(index) : added.get(index - snapshot.size());
+    }
+
+    private String historyAt(int position) {
+        return history[(historyStart + position) % history.length];
+    }
+
+    // 追加到历史末尾（丢弃当前位置之后的记录），超出容量时覆盖最旧的记录
+    private void appendHistory(String path) {
+        historySize = historyPosition + 1;
+        if (historySize == history.length) {
+            historyStart = (historyStart + 1) % history.length;
+            historySize--;
+        }
+        history[(historyStart + historySize) % history.length] = path;
+        historySize++;
+        historyPosition = historySize - 1;
+    }
+}
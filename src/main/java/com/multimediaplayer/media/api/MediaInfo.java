@@ -0,0 +1,72 @@
+package com.multimediaplayer.media.api;
+
+/**
+ * 媒体元数据（由容器头部探测得到，不可变）
+ * 未能探测到的字段：数值为0，字符串为空串
+ */
+public final class MediaInfo {
+    private final String path;
+    private final long size;          // 文件大小（字节）
+    private final long lastModified;  // 最后修改时间（毫秒）
+    private final String container;   // 容器格式：mp4/mkv/webm/flv
+    private final long durationMs;
+    private final String videoCodec;
+    private final String audioCodec;
+    private final int width;
+    private final int height;
+
+    public MediaInfo(String path, long size, long lastModified, String container, long durationMs,
+                     String videoCodec, String audioCodec, int width, int height) {
+        this.path = path;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.container = container == null ? "" : container;
+        this.durationMs = durationMs;
+        this.videoCodec = videoCodec == null ? "" : videoCodec;
+        this.audioCodec = audioCodec == null ? "" : audioCodec;
+        this.width = width;
+        this.height = height;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public String getContainer() {
+        return container;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public String getVideoCodec() {
+        return videoCodec;
+    }
+
+    public String getAudioCodec() {
+        return audioCodec;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public String toString() {
+        return path + " [" + container + ", " + durationMs + "ms, " + videoCodec + "/" + audioCodec
+                + ", " + width + "x" + height + "]";
+    }
+}
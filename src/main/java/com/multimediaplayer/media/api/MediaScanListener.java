@@ -0,0 +1,15 @@
+package com.multimediaplayer.media.api;
+
+/**
+ * 媒体扫描进度监听（在扫描工作线程中回调，实现方需自行切换到UI线程）
+ */
+@FunctionalInterface
+public interface MediaScanListener {
+    /**
+     * 每探测完成一个媒体文件回调一次
+     * @param info 媒体元数据
+     * @param probed 已探测完成的文件数
+     * @param discovered 目前已发现的候选文件数（遍历未结束时会继续增长）
+     */
+    void onMediaScanned(MediaInfo info, int probed, int discovered);
+}
@@ -0,0 +1,95 @@
+package com.multimediaplayer.media.api;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 媒体库搜索条件（不可变，通过Builder构造）
+ * 文本按词匹配文件名、目录与元数据，每个词均为前缀匹配，无匹配时回退为编辑距离1的模糊匹配；
+ * 分面过滤：字段 → 取值（字段见FACET_*常量，同一字段只能指定一个取值）
+ */
+public final class MediaSearchQuery {
+    // 分面字段
+    public static final String FACET_CONTAINER = "container";
+    public static final String FACET_VIDEO_CODEC = "videoCodec";
+    public static final String FACET_AUDIO_CODEC = "audioCodec";
+    public static final String FACET_RESOLUTION = "resolution"; // 4K/1080p/720p/SD/unknown
+    public static final String FACET_DURATION = "duration";     // short(<5分钟)/medium(<20分钟)/long(<60分钟)/feature/unknown
+
+    private final String text;
+    private final Map<String, String> filters;
+    private final long minDurationMs;
+    private final long maxDurationMs;
+    private final int limit;
+
+    private MediaSearchQuery(Builder builder) {
+        this.text = builder.text;
+        this.filters = Collections.unmodifiableMap(new LinkedHashMap<>(builder.filters));
+        this.minDurationMs = builder.minDurationMs;
+        this.maxDurationMs = builder.maxDurationMs;
+        this.limit = builder.limit;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public Map<String, String> getFilters() {
+        return filters;
+    }
+
+    public long getMinDurationMs() {
+        return minDurationMs;
+    }
+
+    public long getMaxDurationMs() {
+        return maxDurationMs;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public static final class Builder {
+        private String text = "";
+        private final Map<String, String> filters = new LinkedHashMap<>();
+        private long minDurationMs = 0;
+        private long maxDurationMs = Long.MAX_VALUE;
+        private int limit = 100;
+
+        private Builder() {
+        }
+
+        public Builder text(String text) {
+            this.text = text == null ? "" : text;
+            return this;
+        }
+
+        public Builder filter(String facet, String value) {
+            filters.put(facet, value);
+            return this;
+        }
+
+        // 时长范围（毫秒，闭区间）
+        public Builder duration(long minDurationMs, long maxDurationMs) {
+            this.minDurationMs = minDurationMs;
+            this.maxDurationMs = maxDurationMs;
+            return this;
+        }
+
+        // 返回条目上限（命中总数与分面统计不受影响）
+        public Builder limit(int limit) {
+            this.limit = Math.max(0, limit);
+            return this;
+        }
+
+        public MediaSearchQuery build() {
+            return new MediaSearchQuery(this);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.multimediaplayer.media.api;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 媒体库搜索结果（不可变）：按相关度排序的条目、命中总数、命中集合上的分面计数
+ */
+public final class MediaSearchResult {
+    private final List<MediaInfo> items;
+    private final int totalHits;
+    private final Map<String, Map<String, Integer>> facetCounts;
+
+    public MediaSearchResult(List<MediaInfo> items, int totalHits, Map<String, Map<String, Integer>> facetCounts) {
+        this.items = List.copyOf(items);
+        this.totalHits = totalHits;
+        this.facetCounts = Map.copyOf(facetCounts);
+    }
+
+    public List<MediaInfo> getItems() {
+        return items;
+    }
+
+    public int getTotalHits() {
+        return totalHits;
+    }
+
+    // 分面字段 → (取值 → 命中条目数)
+    public Map<String, Map<String, Integer>> getFacetCounts() {
+        return facetCounts;
+    }
+}
@@ -1,6 +1,7 @@
 package com.multimediaplayer.media.api;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 媒体资源服务接口：播放列表、媒体扫描、历史记录
@@ -9,13 +10,30 @@ public interface MediaService {
     // 播放列表操作
     void addToPlaylist(String mediaPath);
     void removeFromPlaylist(String mediaPath);
-    List<String> getPlaylist();
+    void moveInPlaylist(String mediaPath, int toIndex); // 移动到指定位置
+    List<String> getPlaylist(); // 只读快照（不随后续修改变化）
     String getNextMedia(); // 获取下一首
+    String peekNextMedia(); // 预取下一首（不移动播放位置，供无缝播放预载）
+    void setCurrentMedia(String mediaPath); // 确认实际开始播放的条目（无缝切换后调用）
+    String getPreviousMedia(); // 获取上一首（随机模式沿播放历史后退）
+    void setShuffle(boolean enabled); // 随机播放（不重复的随机顺序）
+    void setRepeatMode(RepeatMode mode);
+    int importPlaylist(String playlistPath); // 导入.m3u/.m3u8/.pls/.xspf并追加到播放列表，返回新增条数
+    boolean exportPlaylist(String playlistPath); // 按扩展名导出当前播放列表
 
-    // 媒体扫描
+    // 媒体扫描（递归，仅探测容器头部）
     List<String> scanLocalMedia(String folderPath);
+    List<MediaInfo> scanLocalMedia(String folderPath, MediaScanListener listener); // 带进度回调
+    CompletableFuture<List<MediaInfo>> scanLocalMediaAsync(String folderPath, MediaScanListener listener); // 后台扫描，不阻塞调用线程
+    MediaInfo getMediaInfo(String mediaPath); // 已扫描媒体的元数据（未扫描返回null）
+    List<MediaInfo> getLibraryMedia(); // 媒体库全部条目（来自持久化索引，无需重新扫描）
+    void refreshLibrary(); // 增量刷新已扫描目录（仅探测大小/修改时间变化的文件）
+    MediaSearchResult searchLibrary(MediaSearchQuery query); // 按文件名/目录/元数据全文检索，支持前缀、分面过滤与计数
 
-    // 历史记录
+    // 历史记录（位置单位：毫秒）
     void savePlayHistory(String mediaPath, long position);
     long getLastPlayPosition(String mediaPath);
+    // 异步版本：首次访问需读取历史文件，UI线程应使用以下方法
+    CompletableFuture<Void> savePlayHistoryAsync(String mediaPath, long position);
+    CompletableFuture<Long> getLastPlayPositionAsync(String mediaPath);
 }
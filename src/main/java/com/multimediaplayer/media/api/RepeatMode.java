@@ -0,0 +1,10 @@
+package com.multimediaplayer.media.api;
+
+/**
+ * 播放列表循环模式（作用于自动切换下一首）
+ */
+public enum RepeatMode {
+    OFF, // 播放到列表末尾后停止
+    ONE, // 单曲循环
+    ALL  // 列表循环
+}
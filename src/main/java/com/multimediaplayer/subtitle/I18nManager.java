@@ -0,0 +1,108 @@
+package com.multimediaplayer.subtitle;
+
+import com.multimediaplayer.container.AppContext;
+import com.multimediaplayer.subtitle.api.I18nService;
+import org.slf4j.Logger;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * 国际化实现：全局唯一实例，界面文案与字幕轨道选择共用同一份语言状态
+ */
+public class I18nManager implements I18nService, AutoCloseable {
+    private static final String DEFAULT_LANGUAGE = "messages_zh_CN.properties-CN";
+
+    private final AppContext appContext;
+    private final Logger logger;
+    private volatile MessageCatalog catalog; // 当前语言的文案快照，切换语言时整体替换
+    private final List<String> supportedLanguages = Arrays.asList(DEFAULT_LANGUAGE, "en-US"); // 支持的语言
+    private final List<Consumer<String>> languageListeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService bundleLoader = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "i18n-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public I18nManager(AppContext appContext) {
+        this.appContext = appContext;
+        this.logger = appContext.getGlobalLogger();
+        // 默认语言同步加载：界面初始化时即需要文案
+        this.catalog = loadCatalog(DEFAULT_LANGUAGE);
+    }
+
+    // 加载资源包并编译为文案快照（失败时回退到默认中文）
+    private MessageCatalog loadCatalog(String language) {
+        try {
+            long begin = System.nanoTime();
+            MessageCatalog loaded = MessageCatalog.load(language, Locale.forLanguageTag(language), getClass().getClassLoader());
+            logger.info("国际化资源包加载完成：{}，{}条，耗时{}ms", language, loaded.size(), (System.nanoTime() - begin) / 1_000_000);
+            return loaded;
+        } catch (Exception e) {
+            logger.error("加载{}语言资源包失败，回退到默认中文", language, e);
+            return MessageCatalog.load(DEFAULT_LANGUAGE, Locale.CHINA, getClass().getClassLoader());
+        }
+    }
+
+    // ========== I18nService 接口实现 ==========
+    @Override
+    public String getMessage(String key) {
+        return catalog.get(key, logger);
+    }
+
+    @Override
+    public String getMessage(String key, Object... args) {
+        return catalog.format(key, args, logger);
+    }
+
+    @Override
+    public List<String> getSupportedLanguages() {
+        return Collections.unmodifiableList(supportedLanguages); // 返回不可修改的列表，避免外部篡改
+    }
+
+    @Override
+    public void setLanguage(String language) {
+        if (!supportedLanguages.contains(language)) {
+            logger.warn("不支持的语言：{}，当前支持：{}", language, supportedLanguages);
+            return;
+        }
+        // 后台加载资源包，不阻塞调用方（通常是FX线程）；加载完成后原子替换快照并通知监听者
+        bundleLoader.execute(() -> {
+            if (language.equals(catalog.getLanguage())) {
+                return;
+            }
+            catalog = loadCatalog(language);
+            logger.info("国际化资源包切换为：{}", catalog.getLanguage());
+            for (Consumer<String> listener : languageListeners) {
+                try {
+                    listener.accept(catalog.getLanguage());
+                } catch (Exception e) {
+                    logger.warn("语言切换事件处理失败：{}", e.getMessage());
+                }
+            }
+        });
+    }
+
+    @Override
+    public String getCurrentLanguage() {
+        return catalog.getLanguage();
+    }
+
+    @Override
+    public void registerLanguageListener(Consumer<String> listener) {
+        languageListeners.add(listener);
+    }
+
+    @Override
+    public void close() {
+        bundleLoader.shutdownNow();
+        languageListeners.clear();
+        logger.info("国际化模块已释放");
+    }
+}
@@ -0,0 +1,90 @@
+package com.multimediaplayer.subtitle;
+
+import org.slf4j.Logger;
+
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * 某一语言的文案快照（不可变）：加载时一次性读出资源包全部文案，含参数占位符{n}的文案预先编译为MessageFormat
+ * 单引号按字面输出（编译前转义为''），与未编译的文案一致；不含{n}的文案不经过MessageFormat
+ * 缺失的key只在第一次查询时记录警告，兜底文案缓存复用（负缓存）
+ * 切换语言时整体替换快照，读取方无需加锁
+ */
+final class MessageCatalog {
+    private static final Pattern ARGUMENT = Pattern.compile("\\{\\s*\\d+\\s*[,}]");
+
+    private final String language;
+    private final Locale locale;
+    private final Map<String, String> patterns;
+    private final Map<String, MessageFormat> formats;
+    private final Map<String, String> missing = new ConcurrentHashMap<>();
+
+    private MessageCatalog(String language, Locale locale, Map<String, String> patterns, Map<String, MessageFormat> formats) {
+        this.language = language;
+        this.locale = locale;
+        this.patterns = patterns;
+        this.formats = formats;
+    }
+
+    static MessageCatalog load(String language, Locale locale, ClassLoader classLoader) {
+        ResourceBundle bundle = ResourceBundle.getBundle("i18n/messages", locale, classLoader);
+        Map<String, String> patterns = new HashMap<>();
+        Map<String, MessageFormat> formats = new HashMap<>();
+        for (String key : bundle.keySet()) {
+            String pattern = bundle.getString(key);
+            patterns.put(key, pattern);
+            if (ARGUMENT.matcher(pattern).find()) {
+                try {
+                    formats.put(key, new MessageFormat(pattern.replace("'", "''"), locale));
+                } catch (IllegalArgumentException e) {
+                    // 不是合法的MessageFormat模式，按普通文案处理
+                }
+            }
+        }
+        return new MessageCatalog(language, locale, Collections.unmodifiableMap(patterns), Collections.unmodifiableMap(formats));
+    }
+
+    String getLanguage() {
+        return language;
+    }
+
+    String get(String key, Logger logger) {
+        String pattern = patterns.get(key);
+        return pattern != null ? pattern : fallback(key, logger);
+    }
+
+    /**
+     * 带参数的文案：{n}占位符使用预编译的MessageFormat；兼容旧的%s写法（String.format）
+     */
+    String format(String key, Object[] args, Logger logger) {
+        MessageFormat format = formats.get(key);
+        if (format != null) {
+            synchronized (format) { // MessageFormat非线程安全，同一key的并发格式化串行
+                return format.format(args);
+            }
+        }
+        String pattern = get(key, logger);
+        if (args == null || args.length == 0 || pattern.indexOf('%') < 0) {
+            return pattern;
+        }
+        return String.format(locale, pattern, args);
+    }
+
+    private String fallback(String key, Logger logger) {
+        return missing.computeIfAbsent(key, missingKey -> {
+            logger.warn("未找到国际化文案：{}（语言：{}）", missingKey, language);
+            return "[" + missingKey + "]";
+        });
+    }
+
+    int size() {
+        return patterns.size();
+    }
+}
@@ -0,0 +1,312 @@
+package com.multimediaplayer.subtitle;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * 字幕文件流式解析：逐行读取.srt/.ass/.ssa/.vtt，直接写入SubtitleIndex构建器
+ * 不缓存整文件内容，解析失败的单条字幕跳过而不中断整体加载
+ * 编码：带BOM的文件按BOM（UTF-8/UTF-16）；否则先按UTF-8读取，不是合法UTF-8时改用系统编码（GBK/Big5等旧字幕，系统为UTF-8时用Latin-1）
+ * 无法解码的字节替换为U+FFFD，不会中断整个字幕加载
+ */
+final class SubtitleFileReader {
+
+    private SubtitleFileReader() {
+    }
+
+    static SubtitleIndex read(Path path) throws IOException {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean ass = name.endsWith(".ass") || name.endsWith(".ssa");
+        if (!ass && !name.endsWith(".srt") && !name.endsWith(".vtt")) {
+            throw new IOException("不支持的字幕格式：" + name);
+        }
+        Charset bomCharset = bomCharset(path);
+        if (bomCharset != null) {
+            return readText(path, ass, decoder(bomCharset, CodingErrorAction.REPLACE));
+        }
+        try {
+            return readText(path, ass, decoder(StandardCharsets.UTF_8, CodingErrorAction.REPORT));
+        } catch (CharacterCodingException e) {
+            // 旧式字幕：按本地编码重新读取
+            return readText(path, ass, decoder(legacyCharset(), CodingErrorAction.REPLACE));
+        }
+    }
+
+    private static SubtitleIndex readText(Path path, boolean ass, CharsetDecoder decoder) throws IOException {
+        SubtitleIndex.Builder builder = new SubtitleIndex.Builder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(path), decoder), 64 * 1024)) {
+            if (ass) {
+                readAss(reader, builder);
+            } else {
+                readCueBlocks(reader, builder); // SRT与VTT同为"时间行 + 文本块"结构
+            }
+        }
+        return builder.build();
+    }
+
+    private static CharsetDecoder decoder(Charset charset, CodingErrorAction action) {
+        return charset.newDecoder().onMalformedInput(action).onUnmappableCharacter(action);
+    }
+
+    // 按文件开头的BOM确定编码，没有BOM返回null（BOM字符本身由stripBom去除）
+    private static Charset bomCharset(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] head = in.readNBytes(3);
+            if (head.length == 3 && (head[0] & 0xFF) == 0xEF && (head[1] & 0xFF) == 0xBB && (head[2] & 0xFF) == 0xBF) {
+                return StandardCharsets.UTF_8;
+            }
+            if (head.length >= 2 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xFE) {
+                return StandardCharsets.UTF_16LE;
+            }
+            if (head.length >= 2 && (head[0] & 0xFF) == 0xFE && (head[1] & 0xFF) == 0xFF) {
+                return StandardCharsets.UTF_16BE;
+            }
+            return null;
+        }
+    }
+
+    // 旧式字幕通常使用系统编码；系统编码为UTF-8时（已读取失败）退回Latin-1，任何字节都能解码
+    private static Charset legacyCharset() {
+        String nativeEncoding = System.getProperty("native.encoding");
+        Charset charset = Charset.defaultCharset();
+        try {
+            if (nativeEncoding != null) {
+                charset = Charset.forName(nativeEncoding);
+            }
+        } catch (IllegalArgumentException e) {
+            // 不支持的编码名：使用默认编码
+        }
+        return StandardCharsets.UTF_8.equals(charset) ? StandardCharsets.ISO_8859_1 : charset;
+    }
+
+    // ---------------------- SRT / WebVTT ----------------------
+    private static void readCueBlocks(BufferedReader reader, SubtitleIndex.Builder builder) throws IOException {
+        StringBuilder text = new StringBuilder();
+        long start = -1;
+        long end = -1;
+        boolean skipBlock = false; // VTT的NOTE/STYLE/REGION块
+        String line;
+        boolean firstLine = true;
+        while ((line = reader.readLine()) != null) {
+            if (firstLine) {
+                line = stripBom(line);
+                firstLine = false;
+            }
+            if (line.isBlank()) {
+                if (start >= 0) {
+                    builder.add(start, end, text.toString());
+                }
+                start = -1;
+                text.setLength(0);
+                skipBlock = false;
+                continue;
+            }
+            if (skipBlock) {
+                continue;
+            }
+            if (start < 0) {
+                int arrow = line.indexOf("-->");
+                if (arrow >= 0) {
+                    start = parseClock(line, 0, arrow);
+                    end = parseClock(line, arrow + 3, line.length());
+                    if (start < 0 || end < 0) {
+                        start = -1;
+                        skipBlock = true; // 时间行损坏，跳过本条
+                    }
+                } else if (line.startsWith("NOTE") || line.startsWith("STYLE") || line.startsWith("REGION")) {
+                    skipBlock = true;
+                }
+                // 其余为SRT序号、VTT头部或cue标识，忽略
+                continue;
+            }
+            if (text.length() > 0) {
+                text.append('\n');
+            }
+            appendWithoutTags(text, line);
+        }
+        if (start >= 0) {
+            builder.add(start, end, text.toString());
+        }
+    }
+
+    // 去除<i>、<b>、<font>、<v 说话人>等标签
+    private static void appendWithoutTags(StringBuilder target, String line) {
+        int tagStart = line.indexOf('<');
+        if (tagStart < 0) {
+            target.append(line);
+            return;
+        }
+        int from = 0;
+        while (tagStart >= 0) {
+            int tagEnd = line.indexOf('>', tagStart);
+            if (tagEnd < 0) {
+                break;
+            }
+            target.append(line, from, tagStart);
+            from = tagEnd + 1;
+            tagStart = line.indexOf('<', from);
+        }
+        target.append(line, from, line.length());
+    }
+
+    // ---------------------- ASS / SSA ----------------------
+    private static void readAss(BufferedReader reader, SubtitleIndex.Builder builder) throws IOException {
+        boolean inEvents = false;
+        int startField = 1;
+        int endField = 2;
+        int textField = 9;
+        String line;
+        boolean firstLine = true;
+        while ((line = reader.readLine()) != null) {
+            if (firstLine) {
+                line = stripBom(line);
+                firstLine = false;
+            }
+            line = line.trim();
+            if (line.startsWith("[")) {
+                inEvents = line.equalsIgnoreCase("[Events]");
+                continue;
+            }
+            if (!inEvents) {
+                continue;
+            }
+            if (line.startsWith("Format:")) {
+                // 按Format行确定字段顺序，Text恒为最后一个字段
+                String[] fields = line.substring(7).split(",");
+                for (int i = 0; i < fields.length; i++) {
+                    String field = fields[i].trim();
+                    if (field.equalsIgnoreCase("Start")) {
+                        startField = i;
+                    } else if (field.equalsIgnoreCase("End")) {
+                        endField = i;
+                    } else if (field.equalsIgnoreCase("Text")) {
+                        textField = i;
+                    }
+                }
+            } else if (line.startsWith("Dialogue:")) {
+                readAssDialogue(line, 9, startField, endField, textField, builder);
+            }
+        }
+    }
+
+    private static void readAssDialogue(String line, int offset, int startField, int endField, int textField,
+                                        SubtitleIndex.Builder builder) {
+        long start = -1;
+        long end = -1;
+        int fieldStart = offset;
+        for (int field = 0; field < textField; field++) {
+            int comma = line.indexOf(',', fieldStart);
+            if (comma < 0) {
+                return; // 字段不足，跳过
+            }
+            if (field == startField) {
+                start = parseClock(line, fieldStart, comma);
+            } else if (field == endField) {
+                end = parseClock(line, fieldStart, comma);
+            }
+            fieldStart = comma + 1;
+        }
+        if (start < 0 || end < 0) {
+            return;
+        }
+        builder.add(start, end, cleanAssText(line, fieldStart));
+    }
+
+    // 去除{\...}覆盖标签，转换\N、\n换行和\h硬空格
+    private static String cleanAssText(String line, int from) {
+        StringBuilder text = new StringBuilder(line.length() - from);
+        int i = from;
+        while (i < line.length()) {
+            char c = line.charAt(i);
+            if (c == '{') {
+                int close = line.indexOf('}', i);
+                if (close > 0) {
+                    i = close + 1;
+                    continue;
+                }
+            } else if (c == '\\' && i + 1 < line.length()) {
+                char next = line.charAt(i + 1);
+                if (next == 'N' || next == 'n') {
+                    text.append('\n');
+                    i += 2;
+                    continue;
+                } else if (next == 'h') {
+                    text.append(' ');
+                    i += 2;
+                    continue;
+                }
+            }
+            text.append(c);
+            i++;
+        }
+        return text.toString().trim();
+    }
+
+    // ---------------------- 时间解析 ----------------------
+
+    /**
+     * 解析[hh:]mm:ss[.,]fff 格式的时间（兼容SRT逗号、VTT点号、ASS百分秒）
+     * @return 毫秒数，格式错误返回-1
+     */
+    static long parseClock(String text, int from, int to) {
+        int i = from;
+        while (i < to && text.charAt(i) == ' ') {
+            i++;
+        }
+        long[] parts = new long[2];
+        int partCount = 0;
+        long value = 0;
+        int digits = 0;
+        long fraction = 0;
+        int fractionDigits = -1;
+        for (; i < to; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (fractionDigits >= 0) {
+                    if (fractionDigits < 3) {
+                        fraction = fraction * 10 + (c - '0');
+                    }
+                    fractionDigits++;
+                } else {
+                    value = value * 10 + (c - '0');
+                    digits++;
+                }
+            } else if (c == ':' && fractionDigits < 0) {
+                if (digits == 0 || partCount == 2) {
+                    return -1; // 不支持天数等更多字段
+                }
+                parts[partCount++] = value;
+                value = 0;
+                digits = 0;
+            } else if ((c == '.' || c == ',') && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                break; // 时间之后的VTT样式设置等内容
+            }
+        }
+        if (digits == 0 || partCount == 0) {
+            return -1;
+        }
+        for (int pad = fractionDigits; pad >= 0 && pad < 3; pad++) {
+            fraction *= 10; // 百分秒/十分秒补齐到毫秒
+        }
+        long seconds = value;
+        long minutes = parts[partCount - 1];
+        long hours = partCount == 2 ? parts[0] : 0;
+        return ((hours * 60 + minutes) * 60 + seconds) * 1000 + fraction;
+    }
+
+    private static String stripBom(String line) {
+        return !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+    }
+}
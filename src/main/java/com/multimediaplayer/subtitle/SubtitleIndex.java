@@ -0,0 +1,291 @@
+package com.multimediaplayer.subtitle;
+
+import java.util.Arrays;
+
+/**
+ * 字幕区间索引：按起始时间排序的原始数组（毫秒精度）
+ * 顺序播放时游标增量推进，跳转时二分查找；支持重叠字幕
+ * 重叠字幕由居中区间树查询，代价为O(log n + 命中条数)，与贯穿全片的长字幕（标题、ASS标牌）无关
+ */
+final class SubtitleIndex {
+    static final SubtitleIndex EMPTY = new SubtitleIndex(new long[0], new long[0], new String[0]);
+
+    private final long[] starts;     // 起始时间（毫秒，升序）
+    private final long[] ends;       // 结束时间（毫秒）
+    private final long[] maxEnds;    // 前缀最大结束时间：maxEnds[i] = max(ends[0..i])，判断是否需要查询区间树
+    private final String[] texts;
+    private final IntervalTree tree; // 无重叠字幕时为null
+
+    // 查询游标与结果缓存（同一轨道只会被进度线程顺序查询，加锁成本可忽略）
+    private int cursor;              // 起始时间<=上次查询时间的字幕数量
+    private long lastTime = Long.MIN_VALUE;
+    private long cachedFrom = Long.MAX_VALUE;
+    private long cachedUntil = Long.MIN_VALUE;
+    private String cachedText = "";
+    private int[] active = new int[8]; // 当前时间点命中的字幕下标（查询暂存）
+
+    SubtitleIndex(long[] starts, long[] ends, String[] texts) {
+        this.starts = starts;
+        this.ends = ends;
+        this.texts = texts;
+        this.maxEnds = new long[starts.length];
+        long max = Long.MIN_VALUE;
+        boolean overlapping = false;
+        for (int i = 0; i < ends.length; i++) {
+            overlapping |= max > starts[i];
+            max = Math.max(max, ends[i]);
+            maxEnds[i] = max;
+        }
+        this.tree = overlapping ? new IntervalTree(starts, ends) : null;
+    }
+
+    int size() {
+        return starts.length;
+    }
+
+    /**
+     * 获取指定时间点显示的字幕，多条重叠字幕按起始时间顺序以换行拼接
+     * @param timeMs 播放进度（毫秒）
+     * @return 字幕文本（无则返回空字符串）
+     */
+    synchronized String lookup(long timeMs) {
+        if (timeMs >= cachedFrom && timeMs < cachedUntil) {
+            return cachedText; // 常规播放：字幕未切换，直接命中缓存
+        }
+
+        moveCursor(timeMs);
+
+        // 下一次字幕变化时间：下一条字幕开始，或当前某条字幕结束
+        long until = cursor < starts.length ? starts[cursor] : Long.MAX_VALUE;
+        int count;
+        if (cursor == 0 || maxEnds[cursor - 1] <= timeMs) {
+            count = 0;
+        } else if (cursor == 1 || maxEnds[cursor - 2] <= timeMs) {
+            active[0] = cursor - 1; // 之前的字幕都已结束：只有最近开始的一条可能显示
+            count = 1;
+        } else {
+            count = tree.query(starts, ends, timeMs, this);
+            Arrays.sort(active, 0, count); // 下标顺序即起始时间顺序
+        }
+        for (int i = 0; i < count; i++) {
+            until = Math.min(until, ends[active[i]]);
+        }
+
+        cachedFrom = timeMs;
+        cachedUntil = until;
+        cachedText = count == 0 ? "" : count == 1 ? texts[active[0]] : joinActive(count);
+        return cachedText;
+    }
+
+    // 区间树查询回调：记录命中的字幕下标
+    private void addActive(int count, int index) {
+        if (count == active.length) {
+            active = Arrays.copyOf(active, count * 2);
+        }
+        active[count] = index;
+    }
+
+    // 增量推进游标；回退或跨度过大时改用二分查找
+    private void moveCursor(long timeMs) {
+        if (timeMs >= lastTime && cursor < starts.length && starts[cursor] > timeMs) {
+            lastTime = timeMs; // 游标无需移动
+            return;
+        }
+        if (timeMs >= lastTime) {
+            int limit = Math.min(starts.length, cursor + 8);
+            while (cursor < limit && starts[cursor] <= timeMs) {
+                cursor++;
+            }
+            if (cursor == limit && cursor < starts.length && starts[cursor] <= timeMs) {
+                cursor = upperBound(timeMs);
+            }
+        } else {
+            cursor = upperBound(timeMs);
+        }
+        lastTime = timeMs;
+    }
+
+    // 返回第一个起始时间>timeMs的下标
+    private int upperBound(long timeMs) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] <= timeMs) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private String joinActive(int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                builder.append('\n');
+            }
+            builder.append(texts[active[i]]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 居中区间树（扁平数组存储）：每个节点保存跨越其中心点的字幕，分别按起始升序、结束降序排列；
+     * 结束不晚于中心点的字幕进入左子树，起始晚于中心点的进入右子树
+     */
+    private static final class IntervalTree {
+        private final long[] centers;
+        private final int[] from;        // 节点字幕在byStart/byEnd中的区间[from, to)
+        private final int[] to;
+        private final int[] left;
+        private final int[] right;
+        private final int[] byStart;
+        private final int[] byEnd;
+        private final int root;
+        private int nodeCount;
+        private int itemCount;
+
+        IntervalTree(long[] starts, long[] ends) {
+            int size = starts.length;
+            centers = new long[size]; // 每个节点至少包含一条字幕，节点数不超过字幕数
+            from = new int[size];
+            to = new int[size];
+            left = new int[size];
+            right = new int[size];
+            byStart = new int[size];
+            byEnd = new int[size];
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) {
+                all[i] = i;
+            }
+            root = build(starts, ends, all, size);
+        }
+
+        // items按下标升序（即起始时间升序）；以中位字幕的起始时间为中心点，树高O(log n)
+        private int build(long[] starts, long[] ends, int[] items, int size) {
+            if (size == 0) {
+                return -1;
+            }
+            int node = nodeCount++;
+            long center = starts[items[size >>> 1]];
+            int[] leftItems = new int[size];
+            int[] rightItems = new int[size];
+            int leftSize = 0;
+            int rightSize = 0;
+            from[node] = itemCount;
+            for (int i = 0; i < size; i++) {
+                int index = items[i];
+                if (ends[index] <= center) {
+                    leftItems[leftSize++] = index;
+                } else if (starts[index] > center) {
+                    rightItems[rightSize++] = index;
+                } else {
+                    byStart[itemCount++] = index;
+                }
+            }
+            to[node] = itemCount;
+
+            // 按结束时间降序：(结束时间, 下标)打包为long排序，避免装箱
+            int count = to[node] - from[node];
+            long[] keys = new long[count];
+            for (int i = 0; i < count; i++) {
+                int index = byStart[from[node] + i];
+                keys[i] = (Math.min(ends[index], Builder.MAX_START_MS) << Builder.INDEX_BITS) | index;
+            }
+            Arrays.sort(keys);
+            for (int i = 0; i < count; i++) {
+                byEnd[from[node] + i] = (int) (keys[count - 1 - i] & Builder.INDEX_MASK);
+            }
+
+            centers[node] = center;
+            left[node] = build(starts, ends, leftItems, leftSize);
+            right[node] = build(starts, ends, rightItems, rightSize);
+            return node;
+        }
+
+        // 返回包含timeMs的字幕数量，下标通过owner.addActive写入（顺序不定）
+        int query(long[] starts, long[] ends, long timeMs, SubtitleIndex owner) {
+            int count = 0;
+            int node = root;
+            while (node >= 0) {
+                if (timeMs < centers[node]) {
+                    for (int i = from[node]; i < to[node] && starts[byStart[i]] <= timeMs; i++) {
+                        owner.addActive(count++, byStart[i]);
+                    }
+                    node = left[node];
+                } else {
+                    for (int i = from[node]; i < to[node] && ends[byEnd[i]] > timeMs; i++) {
+                        owner.addActive(count++, byEnd[i]);
+                    }
+                    node = right[node];
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * 索引构建器：解析过程中追加字幕，结束时按起始时间排序生成紧凑数组
+     */
+    static final class Builder {
+        private static final int INDEX_BITS = 24;
+        private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+        private static final long MAX_START_MS = Long.MAX_VALUE >>> INDEX_BITS;
+
+        private long[] starts = new long[256];
+        private long[] ends = new long[256];
+        private String[] texts = new String[256];
+        private int size;
+        private boolean sorted = true;
+
+        void add(long startMs, long endMs, String text) {
+            if (startMs < 0 || startMs > MAX_START_MS || endMs <= startMs || text == null || text.isEmpty()) {
+                return; // 无效或空字幕直接丢弃
+            }
+            if (size > INDEX_MASK) {
+                throw new IllegalStateException("字幕条目过多：" + size);
+            }
+            if (size == starts.length) {
+                int capacity = size + (size >> 1);
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                texts = Arrays.copyOf(texts, capacity);
+            }
+            if (size > 0 && startMs < starts[size - 1]) {
+                sorted = false;
+            }
+            starts[size] = startMs;
+            ends[size] = endMs;
+            texts[size] = text;
+            size++;
+        }
+
+        SubtitleIndex build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            if (sorted) {
+                return new SubtitleIndex(Arrays.copyOf(starts, size), Arrays.copyOf(ends, size), Arrays.copyOf(texts, size));
+            }
+
+            // 乱序（常见于ASS多图层）：将(起始时间, 原始下标)打包为long排序，避免装箱
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = (starts[i] << INDEX_BITS) | i;
+            }
+            Arrays.sort(keys);
+            long[] sortedStarts = new long[size];
+            long[] sortedEnds = new long[size];
+            String[] sortedTexts = new String[size];
+            for (int i = 0; i < size; i++) {
+                int from = (int) (keys[i] & INDEX_MASK);
+                sortedStarts[i] = starts[from];
+                sortedEnds[i] = ends[from];
+                sortedTexts[i] = texts[from];
+            }
+            return new SubtitleIndex(sortedStarts, sortedEnds, sortedTexts);
+        }
+    }
+}
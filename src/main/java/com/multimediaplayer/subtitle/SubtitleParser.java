@@ -5,118 +5,166 @@ import com.multimediaplayer.subtitle.api.I18nService;
 import com.multimediaplayer.subtitle.api.SubtitleService;
 import org.slf4j.Logger;
 
-import java.util.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
 
 /**
- * 字幕解析 + 国际化实现（双职责封装）
+ * 字幕解析实现：支持多条字幕轨道（按语言区分），每条轨道只解析一次，切换轨道只替换激活的索引
+ * 轨道选择跟随I18nService的界面语言：界面语言切换后，若有对应语言的轨道则自动激活
  */
-public class SubtitleParser implements SubtitleService, I18nService, AutoCloseable {
+public class SubtitleParser implements SubtitleService, AutoCloseable {
+    private static final String DEFAULT_TRACK = "default";
+    private static final Pattern LANGUAGE_TAG = Pattern.compile("[A-Za-z]{2,3}([-_][A-Za-z0-9]{2,4})?");
+
     private final AppContext appContext;
     private final Logger logger;
-    private ResourceBundle messageBundle; // 国际化资源包
-    private String currentLanguage = "messages_zh_CN.properties-CN"; // 默认语言
-    private final List<String> supportedLanguages = Arrays.asList("messages_zh_CN.properties-CN", "en-US"); // 支持的语言
+    private final I18nService i18nService;
 
-    // 字幕解析相关变量
-    private final Map<Long, String> subtitleMap = new TreeMap<>(); // 时间戳→字幕映射
-    private String currentSubtitle = "";
+    // 轨道表只在加载/切换时修改（加锁）；进度线程只读取volatile发布的激活索引
+    private final Map<String, SubtitleIndex> tracks = new LinkedHashMap<>();
+    private volatile String activeTrack;
+    private volatile SubtitleIndex subtitleIndex = SubtitleIndex.EMPTY;
 
     public SubtitleParser(AppContext appContext) {
         this.appContext = appContext;
         this.logger = appContext.getGlobalLogger();
-        // 初始化默认语言的资源包
-        reloadResourceBundle(currentLanguage);
+        this.i18nService = appContext.getModule(I18nService.class);
+        i18nService.registerLanguageListener(this::onLanguageChanged);
+    }
+
+    @Override
+    public boolean loadSubtitle(String subtitlePath) {
+        clearSubtitle();
+        return addSubtitleTrack(subtitlePath, null);
     }
 
-    // 重新加载资源包（语言切换时调用）
-    private void reloadResourceBundle(String language) {
+    @Override
+    public boolean addSubtitleTrack(String subtitlePath, String language) {
+        Path path = Paths.get(subtitlePath);
+        if (!Files.isRegularFile(path)) {
+            logger.warn("字幕文件不存在：{}", subtitlePath);
+            return false;
+        }
+        String track = language == null || language.isEmpty() ? inferLanguage(path) : language;
         try {
-            Locale locale = Locale.forLanguageTag(language);
-            this.messageBundle = ResourceBundle.getBundle(
-                    "i18n/messages",
-                    locale,
-                    getClass().getClassLoader()
-            );
-            this.currentLanguage = language;
-            logger.info("国际化资源包切换为：{}", language);
+            long begin = System.nanoTime();
+            SubtitleIndex index = SubtitleFileReader.read(path);
+            synchronized (tracks) {
+                tracks.put(track, index);
+                if (activeTrack == null || track.equals(activeTrack)
+                        || matchesLanguage(track, i18nService.getCurrentLanguage())
+                        && !matchesLanguage(activeTrack, i18nService.getCurrentLanguage())) {
+                    activate(track, index);
+                }
+            }
+            logger.info("字幕加载成功：{}（轨道{}），共{}条，耗时{}ms", subtitlePath, track, index.size(),
+                    (System.nanoTime() - begin) / 1_000_000);
+            return true;
         } catch (Exception e) {
-            logger.error("加载{}语言资源包失败，回退到默认中文", language, e);
-            // 回退到中文
-            this.messageBundle = ResourceBundle.getBundle("i18n/messages", Locale.CHINA, getClass().getClassLoader());
-            this.currentLanguage = "messages_zh_CN.properties-CN";
+            logger.error("加载字幕失败", e);
+            return false;
         }
     }
 
-    // ========== I18nService 接口实现 ==========
     @Override
-    public String getMessage(String key) {
-        try {
-            return messageBundle.getString(key);
-        } catch (Exception e) {
-            logger.warn("未找到国际化文案：{}", key);
-            return "[" + key + "]"; // 兜底默认值
+    public List<String> getSubtitleTracks() {
+        synchronized (tracks) {
+            return new ArrayList<>(tracks.keySet());
         }
     }
 
     @Override
-    public String getMessage(String key, Object... args) {
-        String baseMsg = getMessage(key);
-        return String.format(baseMsg, args);
+    public boolean selectSubtitleTrack(String language) {
+        synchronized (tracks) {
+            SubtitleIndex index = tracks.get(language);
+            if (index == null) {
+                logger.warn("字幕轨道不存在：{}，已加载：{}", language, tracks.keySet());
+                return false;
+            }
+            activate(language, index);
+            return true;
+        }
     }
 
     @Override
-    public List<String> getSupportedLanguages() {
-        return Collections.unmodifiableList(supportedLanguages); // 返回不可修改的列表，避免外部篡改
+    public String getActiveSubtitleTrack() {
+        return activeTrack;
     }
 
     @Override
-    public void setLanguage(String language) {
-        if (supportedLanguages.contains(language)) {
-            reloadResourceBundle(language);
-        } else {
-            logger.warn("不支持的语言：{}，当前支持：{}", language, supportedLanguages);
-        }
+    public String getCurrentSubtitle(long currentTime) {
+        // 查找当前时间对应的字幕（currentTime单位：毫秒）
+        return subtitleIndex.lookup(currentTime);
     }
 
-    // ========== SubtitleService 接口实现 ==========
     @Override
-    public boolean loadSubtitle(String subtitlePath) {
-        clearSubtitle();
-        try {
-            // 模拟字幕加载逻辑
-            subtitleMap.put(10L, getMessage("subtitle.example.1")); // 10秒字幕
-            subtitleMap.put(20L, getMessage("subtitle.example.2")); // 20秒字幕
-            logger.info("字幕加载成功：{}", subtitlePath);
-            return true;
-        } catch (Exception e) {
-            logger.error("加载字幕失败", e);
-            return false;
+    public void clearSubtitle() {
+        synchronized (tracks) {
+            tracks.clear();
+            activeTrack = null;
+            subtitleIndex = SubtitleIndex.EMPTY;
         }
     }
 
-    @Override
-    public String getCurrentSubtitle(long currentTime) {
-        // 查找当前时间对应的字幕（currentTime单位：秒）
-        for (Map.Entry<Long, String> entry : subtitleMap.entrySet()) {
-            if (entry.getKey() <= currentTime) {
-                currentSubtitle = entry.getValue();
-            } else {
-                break;
+    // 界面语言切换后（I18nService加载线程回调）：有对应语言的轨道则切换过去
+    private void onLanguageChanged(String language) {
+        synchronized (tracks) {
+            if (activeTrack != null && matchesLanguage(activeTrack, language)) {
+                return;
+            }
+            for (Map.Entry<String, SubtitleIndex> entry : tracks.entrySet()) {
+                if (matchesLanguage(entry.getKey(), language)) {
+                    activate(entry.getKey(), entry.getValue());
+                    return;
+                }
             }
         }
-        return currentSubtitle;
     }
 
-    @Override
-    public void clearSubtitle() {
-        subtitleMap.clear();
-        currentSubtitle = "";
+    private void activate(String track, SubtitleIndex index) {
+        subtitleIndex = index;
+        activeTrack = track;
+        logger.info("字幕轨道切换为：{}", track);
+    }
+
+    // 文件名倒数第二段为语言标记时作为轨道语言（movie.zh-CN.srt → zh-CN），否则为default
+    static String inferLanguage(Path path) {
+        String name = path.getFileName().toString();
+        int extension = name.lastIndexOf('.');
+        int marker = extension > 0 ? name.lastIndexOf('.', extension - 1) : -1;
+        if (marker >= 0) {
+            String tag = name.substring(marker + 1, extension);
+            if (LANGUAGE_TAG.matcher(tag).matches()) {
+                return tag.replace('_', '-');
+            }
+        }
+        return DEFAULT_TRACK;
+    }
+
+    // 轨道语言的主语言代码出现在界面语言标识中即视为一致（"zh-CN"与"messages_zh_CN.properties-CN"、"en"与"en-US"）
+    static boolean matchesLanguage(String track, String uiLanguage) {
+        if (track == null || uiLanguage == null || DEFAULT_TRACK.equals(track)) {
+            return false;
+        }
+        String primary = track.split("[-_]")[0].toLowerCase(Locale.ROOT);
+        for (String part : uiLanguage.toLowerCase(Locale.ROOT).split("[-_.]")) {
+            if (part.equals(primary)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
     public void close() {
         clearSubtitle();
-        messageBundle = null;
-        logger.info("字幕/国际化模块已释放");
+        logger.info("字幕模块已释放");
     }
 }
@@ -1,6 +1,7 @@
 package com.multimediaplayer.subtitle.api;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 国际化服务接口：定义文案获取、语言切换能力
@@ -14,7 +15,7 @@ public interface I18nService {
     String getMessage(String key);
 
     /**
-     * 获取带参数的国际化文案
+     * 获取带参数的国际化文案（占位符使用MessageFormat的{0}写法，兼容%s）
      * @param key 文案key
      * @param args 参数列表
      * @return 格式化后的文案
@@ -28,8 +29,20 @@ public interface I18nService {
     List<String> getSupportedLanguages();
 
     /**
-     * 切换语言
+     * 切换语言：资源包在后台加载，加载完成后整体替换，期间仍返回旧语言的文案
      * @param language 语言标识（如"messages_zh_CN.properties-CN"、"en-US"）
      */
     void setLanguage(String language);
+
+    /**
+     * 获取当前生效的语言
+     * @return 语言标识
+     */
+    String getCurrentLanguage();
+
+    /**
+     * 注册语言切换监听（新语言生效后在加载线程回调，参数为语言标识）
+     * @param listener 监听器
+     */
+    void registerLanguageListener(Consumer<String> listener);
 }
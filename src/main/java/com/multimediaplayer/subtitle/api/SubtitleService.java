@@ -1,25 +1,55 @@
 package com.multimediaplayer.subtitle.api;
 
+import java.util.List;
+
 /**
  * 字幕服务接口：定义字幕加载、解析、获取核心能力
  */
 public interface SubtitleService {
     /**
-     * 加载字幕文件
+     * 加载字幕文件（替换已加载的全部轨道）
      * @param subtitlePath 字幕文件路径（.srt/.ass等）
      * @return 是否加载成功
      */
     boolean loadSubtitle(String subtitlePath);
 
+    /**
+     * 追加一条字幕轨道（已加载的其他轨道保留）；同一语言的轨道会被替换
+     * 没有激活轨道或该轨道语言与界面语言一致时自动激活
+     * @param subtitlePath 字幕文件路径
+     * @param language 轨道语言（如"zh-CN"、"en"），为null时从文件名推断（movie.en.srt → en）
+     * @return 是否加载成功
+     */
+    boolean addSubtitleTrack(String subtitlePath, String language);
+
+    /**
+     * 获取已加载的字幕轨道语言（按加载顺序）
+     * @return 轨道语言列表
+     */
+    List<String> getSubtitleTracks();
+
+    /**
+     * 切换当前字幕轨道（不重新解析）
+     * @param language 轨道语言
+     * @return 轨道是否存在
+     */
+    boolean selectSubtitleTrack(String language);
+
+    /**
+     * 获取当前激活的字幕轨道
+     * @return 轨道语言，未加载时返回null
+     */
+    String getActiveSubtitleTrack();
+
     /**
      * 获取当前播放进度对应的字幕文本
-     * @param currentTime 播放进度（秒）
+     * @param currentTime 播放进度（毫秒）
      * @return 字幕文本（无则返回空字符串）
      */
     String getCurrentSubtitle(long currentTime);
 
     /**
-     * 清空已加载的字幕
+     * 清空已加载的全部字幕轨道
      */
     void clearSubtitle();
 }
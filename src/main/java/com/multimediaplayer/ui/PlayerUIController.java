@@ -1,30 +1,44 @@
 package com.multimediaplayer.ui;
 
+import com.multimediaplayer.codec.api.SeekMode;
+import com.multimediaplayer.codec.api.ThumbnailService;
+import com.multimediaplayer.codec.api.VideoRenderService;
 import com.multimediaplayer.container.AppContext;
+import com.multimediaplayer.container.AsyncExecutors;
+import com.multimediaplayer.container.StartupTimeline;
+import com.multimediaplayer.core.api.PlayState;
 import com.multimediaplayer.core.api.PlayerController;
+import com.multimediaplayer.media.api.MediaService;
 import com.multimediaplayer.subtitle.api.I18nService;
 import com.multimediaplayer.subtitle.api.SubtitleService;
 import com.multimediaplayer.ui.api.PlayerUI;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.ProgressBar;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.VBox;
-import javafx.scene.media.Media;
-import javafx.scene.media.MediaPlayer;
-import javafx.scene.media.MediaView;
 import javafx.stage.Stage;
 import org.slf4j.Logger;
 
-import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 /**
  * UI控制器
+ * 按钮事件中涉及磁盘/媒体加载的操作（媒体加载、播放历史、字幕）通过异步API执行，FX线程只负责发起请求和更新控件
  */
 public class PlayerUIController implements PlayerUI {
     // FXML组件（与player.fxml中的fx:id对应）
@@ -36,6 +50,7 @@ public class PlayerUIController implements PlayerUI {
     @FXML private Button langBtn;
     @FXML private Label stateLabel;
     @FXML private Label subtitleLabel;
+    @FXML private ImageView previewImage;
 
     // 工程结构依赖
     private final AppContext appContext;
@@ -43,7 +58,11 @@ public class PlayerUIController implements PlayerUI {
     private final PlayerController playerController;
     private final SubtitleService subtitleService;
     private final I18nService i18nService;
-    private MediaPlayer mediaPlayer;
+    private final MediaService mediaService;
+    private final ExecutorService ioExecutor = AsyncExecutors.newBlockingExecutor("ui-io"); // 字幕等文件加载
+    private String currentMediaPath;
+    private String requestedLanguage; // 最近一次请求的语言：资源包加载完成前getCurrentLanguage仍返回旧语言，连续点击以此为准
+    private volatile Map<PlayState, String> stateTexts = new EnumMap<>(PlayState.class); // 当前语言的状态文案
 
     // 构造器：依赖工程结构的AppContext
     public PlayerUIController(AppContext appContext) {
@@ -52,6 +71,7 @@ public class PlayerUIController implements PlayerUI {
         this.playerController = appContext.getModule(PlayerController.class);
         this.subtitleService = appContext.getModule(SubtitleService.class);
         this.i18nService = appContext.getModule(I18nService.class);
+        this.mediaService = appContext.getModule(MediaService.class);
     }
 
     // ---------------------- PlayerUI接口实现 ----------------------
@@ -80,9 +100,11 @@ public class PlayerUIController implements PlayerUI {
             loader.setController(this); // 设置当前类为控制器
 
             BorderPane root = loader.load(); // 此时location已设置，不会抛错
+            StartupTimeline.mark("fxml.loaded");
             Scene scene = new Scene(root);
 
             // 后续初始化逻辑（不变）
+            attachRenderView();
             initI18nText();
             bindButtonEvents();
             bindPlayerStateListener();
@@ -102,10 +124,6 @@ public class PlayerUIController implements PlayerUI {
     @Override
     public void updateProgress(double progress) {
         playProgress.setProgress(progress / 100);
-        // 修正1：字幕时间单位（PlayerCore返回的是秒，SubtitleService接收秒）
-        long currentTimeSec = (long) (progress / 100 * playerController.getMediaDuration());
-        // 修正2：替换getSubtitleText为getCurrentSubtitle
-        showSubtitle(subtitleService.getCurrentSubtitle(currentTimeSec));
     }
 
     @Override
@@ -119,69 +137,148 @@ public class PlayerUIController implements PlayerUI {
     }
 
     // ---------------------- 内部初始化方法 ----------------------
+    // 视频画面由解码引擎提供（同一视图在切换媒体时复用），无画面的引擎不挂载
+    private void attachRenderView() {
+        Node renderView = appContext.getModule(VideoRenderService.class).getVideoRenderView();
+        if (renderView != null) {
+            videoContainer.getChildren().add(renderView);
+        }
+    }
+
+    // 只在启动和语言切换后执行：状态文案预先取好，状态变化时直接查表
     private void initI18nText() {
         playBtn.setText(i18nService.getMessage("btn.play"));
         pauseBtn.setText(i18nService.getMessage("btn.pause"));
         stopBtn.setText(i18nService.getMessage("btn.stop"));
         langBtn.setText(i18nService.getMessage("btn.switch.lang"));
-        stateLabel.setText(i18nService.getMessage("state.ready"));
+        Map<PlayState, String> texts = new EnumMap<>(PlayState.class);
+        for (PlayState state : PlayState.values()) {
+            texts.put(state, i18nService.getMessage("state." + state.name().toLowerCase()));
+        }
+        stateTexts = texts;
+        stateLabel.setText(texts.get(PlayState.READY));
     }
 
     private void bindButtonEvents() {
         // 播放按钮
         playBtn.setOnAction(e -> {
-            playerController.play("test.mp4"); // 测试视频路径，可替换为媒体库选择
-            // 修正：使用getMessage获取状态文案
-            updatePlayState(i18nService.getMessage("state.playing"));
-            // 加载测试字幕
-            subtitleService.loadSubtitle("test.srt");
+            String mediaPath = "test.mp4"; // 测试视频路径，可替换为媒体库选择
+            currentMediaPath = mediaPath;
+            thumbnailService().setPreviewMedia(mediaPath);
+            // 媒体在后台加载，开始播放后从上次播放位置继续；播放状态由状态监听更新
+            playerController.playAsync(mediaPath)
+                    .thenCompose(ignored -> mediaService.getLastPlayPositionAsync(mediaPath))
+                    .thenAccept(lastPosition -> {
+                        if (lastPosition > 0) {
+                            playerController.seek(lastPosition);
+                        }
+                    });
+            // 加载测试字幕（与媒体加载并行）
+            CompletableFuture.runAsync(() -> subtitleService.loadSubtitle("test.srt"), ioExecutor);
         });
 
         // 暂停按钮
         pauseBtn.setOnAction(e -> {
             playerController.pause();
-            updatePlayState(i18nService.getMessage("state.paused"));
+            mediaService.savePlayHistoryAsync(currentMediaPath, playerController.getCurrentPosition());
+            updatePlayState(stateTexts.get(PlayState.PAUSED));
         });
 
         // 停止按钮
         stopBtn.setOnAction(e -> {
+            mediaService.savePlayHistoryAsync(currentMediaPath, playerController.getCurrentPosition());
             playerController.stop();
-            updatePlayState(i18nService.getMessage("state.stopped"));
+            updatePlayState(stateTexts.get(PlayState.STOPPED));
             playProgress.setProgress(0);
             showSubtitle("");
         });
 
         // 切换语言按钮
+        // 切换语言按钮：在支持的语言间轮换；资源包在后台加载，生效后再刷新控件文本
         langBtn.setOnAction(e -> {
-            // 修正：语言切换逻辑（避免索引越界）
-            String currentLang = i18nService.getSupportedLanguages().get(0).equals("messages_zh_CN.properties-CN") ? "en-US" : "messages_zh_CN.properties-CN";
-            i18nService.setLanguage(currentLang);
-            initI18nText(); // 重新初始化控件文本
+            List<String> languages = i18nService.getSupportedLanguages();
+            String from = requestedLanguage != null ? requestedLanguage : i18nService.getCurrentLanguage();
+            requestedLanguage = languages.get((languages.indexOf(from) + 1) % languages.size());
+            i18nService.setLanguage(requestedLanguage);
+        });
+        i18nService.registerLanguageListener(language -> Platform.runLater(this::initI18nText));
+
+        // 进度条拖动：拖动中快速跳转（PlayerCore内部合并请求），松开时精确定位
+        playProgress.setOnMouseDragged(e -> seekByProgressBar(e, SeekMode.FAST));
+        playProgress.setOnMouseReleased(e -> {
+            previewImage.setVisible(false);
+            seekByProgressBar(e, SeekMode.ACCURATE);
         });
     }
 
+    private void seekByProgressBar(MouseEvent event, SeekMode mode) {
+        long totalDuration = playerController.getMediaDuration();
+        double width = playProgress.getWidth();
+        if (totalDuration <= 0 || width <= 0) {
+            return;
+        }
+        double ratio = Math.max(0, Math.min(1, event.getX() / width));
+        playProgress.setProgress(ratio);
+        long target = (long) (ratio * totalDuration);
+        if (mode == SeekMode.FAST) {
+            showPreviewFrame(target, event.getX());
+        }
+        playerController.seek(target, mode);
+    }
+
+    // 拖动中在指针上方显示预览帧（来自缩略图服务的内存精灵图，未生成时不显示）
+    private void showPreviewFrame(long positionMs, double x) {
+        Image frame = thumbnailService().getPreviewFrame(positionMs);
+        if (frame == null) {
+            previewImage.setVisible(false);
+            return;
+        }
+        previewImage.setImage(frame);
+        previewImage.setLayoutX(Math.max(0, Math.min(playProgress.getWidth() - frame.getWidth(), x - frame.getWidth() / 2)));
+        previewImage.setLayoutY(-frame.getHeight() - 8);
+        previewImage.setVisible(true);
+    }
+
     private void bindPlayerStateListener() {
-        // 监听播放进度
-        playerController.registerProgressListener(currentPos -> {
+        // 监听播放进度（毫秒；回调在事件线程，字幕查询在此完成，控件更新切回FX线程）
+        playerController.registerProgressListener(currentPosMs -> {
             long totalDuration = playerController.getMediaDuration();
-            if (totalDuration > 0) {
-                double progress = (double) currentPos / totalDuration * 100;
+            String subtitle = subtitleService.getCurrentSubtitle(currentPosMs);
+            double progress = totalDuration > 0 ? (double) currentPosMs / totalDuration * 100 : 0;
+            Platform.runLater(() -> {
                 updateProgress(progress);
-            }
+                showSubtitle(subtitle);
+            });
+        });
+
+        // 无缝播放：预载时只预取下一首，实际切换后（事件线程）再推进播放列表；切换后已播完的媒体下次从头播放
+        playerController.setNextMediaSupplier(mediaService::peekNextMedia);
+        playerController.registerMediaChangeListener(mediaPath -> {
+            mediaService.setCurrentMedia(mediaPath);
+            Platform.runLater(() -> {
+                if (currentMediaPath != null) {
+                    mediaService.savePlayHistoryAsync(currentMediaPath, 0);
+                }
+                currentMediaPath = mediaPath;
+                thumbnailService().setPreviewMedia(mediaPath);
+            });
         });
 
         // 监听播放状态
         playerController.registerStateListener(state -> {
-            // 修正：根据PlayState枚举获取对应文案
-            updatePlayState(i18nService.getMessage("state." + state.name().toLowerCase()));
+            String stateText = stateTexts.get(state);
+            Platform.runLater(() -> updatePlayState(stateText));
         });
     }
 
-    public void playVideo(String videoPath) {
-        Media media = new Media(new File(videoPath).toURI().toString());
-        mediaPlayer = new MediaPlayer(media);
-        MediaView mediaView = new MediaView(mediaPlayer);
-        videoContainer.getChildren().add(mediaView); // 绑定到FXML的videoContainer
-        mediaPlayer.play();
+    // 缩略图服务为延迟模块：第一次播放/拖动时才创建
+    private ThumbnailService thumbnailService() {
+        return appContext.getModule(ThumbnailService.class);
+    }
+
+    @Override
+    public void close() {
+        ioExecutor.shutdownNow();
+        logger.info("UI资源已释放");
     }
 }
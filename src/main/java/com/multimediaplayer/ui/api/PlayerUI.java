@@ -5,7 +5,7 @@ import javafx.stage.Stage;
 /**
  * UI服务接口
  */
-public interface PlayerUI {
+public interface PlayerUI extends AutoCloseable {
     // 显示主窗口
     void show(Stage primaryStage);
 
@@ -17,4 +17,8 @@ public interface PlayerUI {
 
     // 显示字幕文本
     void showSubtitle(String text);
+
+    // 释放UI资源（后台加载线程等）
+    @Override
+    void close();
 }